@@ -0,0 +1,320 @@
+package top.felixu.common.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.beans.Introspector;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 根据 {@code top.felixu.common.bean.MapperPair} 声明生成 {@code top.felixu.common.bean.GeneratedMapper} 实现，
+ * 并写入 {@code META-INF/services} 供运行时通过 ServiceLoader 发现
+ * <p>
+ * 注解与接口均按名称引用，处理器本身不依赖 felixu-common
+ * </p>
+ *
+ * @author felixu
+ * @since 2019.12.18
+ */
+public class MapperPairProcessor extends AbstractProcessor {
+
+    private static final String MAPPER_PAIR = "top.felixu.common.bean.MapperPair";
+
+    private static final String MAPPER_PAIRS = "top.felixu.common.bean.MapperPairs";
+
+    private static final String GENERATED_MAPPER = "top.felixu.common.bean.GeneratedMapper";
+
+    private static final String COPY_POLICY = "top.felixu.common.bean.CopyPolicy";
+
+    private static final Set<String> SIMPLE_TYPES = new HashSet<>(Arrays.asList(
+            "java.lang.String", "java.lang.Boolean", "java.lang.Character", "java.lang.Byte", "java.lang.Short",
+            "java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double",
+            "java.math.BigDecimal", "java.math.BigInteger"));
+
+    /**
+     * 本次编译中生成的全部拷贝器，最后一轮写入 services 文件
+     */
+    private final Set<String> generated = new LinkedHashSet<>();
+
+    /**
+     * 已生成拷贝器的类型对，同一类型对重复声明时只生成一次
+     */
+    private final Set<String> pairs = new HashSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return new HashSet<>(Arrays.asList(MAPPER_PAIR, MAPPER_PAIRS));
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServices();
+            return false;
+        }
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                for (AnnotationMirror pair : pairs(element)) {
+                    TypeMirror source = value(pair, "source");
+                    TypeMirror target = value(pair, "target");
+                    if (null != source && null != target)
+                        generate(element, (TypeElement) asElement(source), (TypeElement) asElement(target));
+                }
+            }
+        }
+        return true;
+    }
+
+    private List<AnnotationMirror> pairs(Element element) {
+        List<AnnotationMirror> result = new ArrayList<>();
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            String name = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+            if (MAPPER_PAIR.equals(name)) {
+                result.add(mirror);
+            } else if (MAPPER_PAIRS.equals(name)) {
+                for (Object pair : (List<?>) rawValue(mirror, "value"))
+                    result.add((AnnotationMirror) ((AnnotationValue) pair).getValue());
+            }
+        }
+        return result;
+    }
+
+    private Object rawValue(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name))
+                return entry.getValue().getValue();
+        }
+        return null;
+    }
+
+    private TypeMirror value(AnnotationMirror mirror, String name) {
+        Object value = rawValue(mirror, name);
+        return value instanceof TypeMirror ? (TypeMirror) value : null;
+    }
+
+    private Element asElement(TypeMirror type) {
+        return processingEnv.getTypeUtils().asElement(type);
+    }
+
+    private void generate(Element origin, TypeElement source, TypeElement target) {
+        String reason = checkTypes(source, target);
+        if (null != reason) {
+            skip(origin, source, target, reason);
+            return;
+        }
+        Map<String, ExecutableElement> getters = accessors(source, true);
+        Map<String, ExecutableElement> setters = accessors(target, false);
+        List<String> statements = new ArrayList<>();
+        for (Map.Entry<String, ExecutableElement> entry : setters.entrySet()) {
+            ExecutableElement getter = getters.get(entry.getKey());
+            if (null == getter)
+                continue;
+            ExecutableElement setter = entry.getValue();
+            TypeMirror srcType = getter.getReturnType();
+            TypeMirror destType = setter.getParameters().get(0).asType();
+            if (!processingEnv.getTypeUtils().isSameType(boxed(srcType), boxed(destType)) || !isSimple(destType)) {
+                skip(origin, source, target, "property '" + entry.getKey() + "' needs conversion or deep copy");
+                return;
+            }
+            statements.add(statement(getter, setter, srcType, destType));
+        }
+        if (!pairs.add(source.getQualifiedName() + " -> " + target.getQualifiedName()))
+            return;
+        String packageName = ((PackageElement) processingEnv.getElementUtils().getPackageOf(origin)).getQualifiedName().toString();
+        // 不同包中的同名类型会得到相同的类名，追加序号区分
+        String baseName = flatName(source) + "To" + flatName(target);
+        String simpleName = baseName + "Mapper";
+        for (int i = 2; !generated.add(qualifiedName(packageName, simpleName)); i++)
+            simpleName = baseName + i + "Mapper";
+        write(origin, packageName, simpleName, source, target, statements);
+    }
+
+    /**
+     * @return 不支持时的原因，支持时返回 null
+     */
+    private String checkTypes(TypeElement source, TypeElement target) {
+        if (!isPublic(source) || !isPublic(target))
+            return "types must be public";
+        if (!source.getTypeParameters().isEmpty() || !target.getTypeParameters().isEmpty())
+            return "generic types are not supported";
+        if (target.getKind() != ElementKind.CLASS || target.getModifiers().contains(Modifier.ABSTRACT))
+            return "target must be a concrete class";
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(target.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC))
+                return null;
+        }
+        return "target has no public no-arg constructor";
+    }
+
+    /**
+     * 类型及其外部类都需为 public，内部类需为静态的，生成代码才能直接访问
+     */
+    private boolean isPublic(TypeElement type) {
+        for (Element current = type; current instanceof TypeElement; current = current.getEnclosingElement()) {
+            Set<Modifier> modifiers = current.getModifiers();
+            if (!modifiers.contains(Modifier.PUBLIC))
+                return false;
+            if (((TypeElement) current).getNestingKind() == NestingKind.MEMBER
+                    && current.getKind() == ElementKind.CLASS && !modifiers.contains(Modifier.STATIC))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * 收集公共的 getter 或 setter，按属性名索引
+     */
+    private Map<String, ExecutableElement> accessors(TypeElement type, boolean getter) {
+        Map<String, ExecutableElement> result = new LinkedHashMap<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            Set<Modifier> modifiers = method.getModifiers();
+            if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC))
+                continue;
+            if (((TypeElement) method.getEnclosingElement()).getQualifiedName().contentEquals("java.lang.Object"))
+                continue;
+            String name = method.getSimpleName().toString();
+            String property = getter ? getterProperty(method, name) : setterProperty(method, name);
+            if (null != property)
+                result.putIfAbsent(property, method);
+        }
+        return result;
+    }
+
+    private String getterProperty(ExecutableElement method, String name) {
+        if (!method.getParameters().isEmpty() || method.getReturnType().getKind() == TypeKind.VOID)
+            return null;
+        if (name.startsWith("get") && name.length() > 3)
+            return Introspector.decapitalize(name.substring(3));
+        if (name.startsWith("is") && name.length() > 2 && method.getReturnType().getKind() == TypeKind.BOOLEAN)
+            return Introspector.decapitalize(name.substring(2));
+        return null;
+    }
+
+    private String setterProperty(ExecutableElement method, String name) {
+        if (method.getParameters().size() != 1 || method.getReturnType().getKind() != TypeKind.VOID)
+            return null;
+        if (name.startsWith("set") && name.length() > 3)
+            return Introspector.decapitalize(name.substring(3));
+        return null;
+    }
+
+    private TypeMirror boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive())
+            return processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind())).asType();
+        return type;
+    }
+
+    private boolean isSimple(TypeMirror type) {
+        if (type.getKind().isPrimitive())
+            return true;
+        if (type.getKind() != TypeKind.DECLARED)
+            return false;
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        String name = element.getQualifiedName().toString();
+        return element.getKind() == ElementKind.ENUM || SIMPLE_TYPES.contains(name) || name.startsWith("java.time.");
+    }
+
+    private String statement(ExecutableElement getter, ExecutableElement setter, TypeMirror srcType, TypeMirror destType) {
+        String get = "source." + getter.getSimpleName() + "()";
+        String set = "destination." + setter.getSimpleName();
+        // 基本类型的值既不会为 null 也不会为空字符，任何策略下都需要拷贝
+        if (srcType.getKind().isPrimitive())
+            return "        " + set + "(" + get + ");\n";
+        String condition = destType.getKind().isPrimitive() ? "null != value && policy.accept(value)" : "policy.accept(value)";
+        return "        {\n"
+                + "            " + srcType + " value = " + get + ";\n"
+                + "            if (" + condition + ")\n"
+                + "                " + set + "(value);\n"
+                + "        }\n";
+    }
+
+    private String flatName(TypeElement type) {
+        StringBuilder builder = new StringBuilder(type.getSimpleName());
+        for (Element current = type.getEnclosingElement(); current instanceof TypeElement; current = current.getEnclosingElement())
+            builder.insert(0, current.getSimpleName() + "_");
+        return builder.toString();
+    }
+
+    private String qualifiedName(String packageName, String simpleName) {
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+
+    private void write(Element origin, String packageName, String simpleName, TypeElement source, TypeElement target, List<String> statements) {
+        String src = source.getQualifiedName().toString();
+        String dest = target.getQualifiedName().toString();
+        StringBuilder code = new StringBuilder();
+        if (!packageName.isEmpty())
+            code.append("package ").append(packageName).append(";\n\n");
+        // 生成文件的编码取决于编译环境，注释只使用 ASCII 字符
+        code.append("/**\n * Generated by ").append(getClass().getName()).append(", do not edit.\n */\n")
+                .append("public final class ").append(simpleName)
+                .append(" implements ").append(GENERATED_MAPPER).append("<").append(src).append(", ").append(dest).append("> {\n\n")
+                .append("    @Override\n    public Class<").append(src).append("> sourceClass() {\n        return ").append(src).append(".class;\n    }\n\n")
+                .append("    @Override\n    public Class<").append(dest).append("> destinationClass() {\n        return ").append(dest).append(".class;\n    }\n\n")
+                .append("    @Override\n    public ").append(dest).append(" newInstance() {\n        return new ").append(dest).append("();\n    }\n\n")
+                .append("    @Override\n    public void copy(").append(src).append(" source, ").append(dest).append(" destination, ")
+                .append(COPY_POLICY).append(" policy) {\n");
+        statements.forEach(code::append);
+        code.append("    }\n}\n");
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName(packageName, simpleName), origin);
+            try (Writer writer = file.openWriter()) {
+                writer.write(code.toString());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "failed to write " + simpleName + ": " + e.getMessage(), origin);
+        }
+    }
+
+    private void writeServices() {
+        if (generated.isEmpty())
+            return;
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    "META-INF/services/" + GENERATED_MAPPER);
+            try (Writer writer = file.openWriter()) {
+                for (String name : generated)
+                    writer.write(name + "\n");
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "failed to write services file: " + e.getMessage());
+        }
+    }
+
+    private void skip(Element origin, TypeElement source, TypeElement target, String reason) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                "skip generating mapper " + source.getQualifiedName() + " -> " + target.getQualifiedName()
+                        + ": " + reason + ", Dozer will be used at runtime", origin);
+    }
+}
@@ -2,15 +2,32 @@ package top.felixu.common.bean;
 
 import com.github.dozermapper.core.DozerBeanMapperBuilder;
 import com.github.dozermapper.core.Mapper;
-import com.github.dozermapper.core.loader.api.BeanMappingBuilder;
-import com.github.dozermapper.core.loader.api.TypeMappingOptions;
+import com.google.common.collect.Iterators;
+import top.felixu.common.bean.PropertyAccessors.Property;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * 对 Dozer 进行封装
+ * <p>
+ * 存在编译期生成的 {@link GeneratedMapper} 时优先使用，否则默认使用 Dozer 拷贝，可通过 {@link #setDefaultEngine(MappingEngine)} 全局切换，或在调用时指定 {@link MappingEngine}
+ * </p>
+ * <p>
+ * 集合拷贝在元素数量超过 {@link #setParallelThreshold(int)} 设置的阈值时，会分块并行拷贝并保持原有顺序
+ * </p>
  *
  * @author felixu
  * @since 2019.12.13
@@ -19,6 +36,22 @@ public class BeanUtils {
 
     private static final Mapper MAPPER = DozerBeanMapperBuilder.buildDefault();
 
+    private static final MapperRegistry REGISTRY = new MapperRegistry();
+
+    private static volatile MappingEngine defaultEngine = MappingEngine.DOZER;
+
+    /**
+     * 集合元素数量不小于该值时，并行分块拷贝
+     */
+    private static volatile int parallelThreshold = 10000;
+
+    /**
+     * 并行拷贝时每个分块的元素数量
+     */
+    private static volatile int parallelChunkSize = 1024;
+
+    private static volatile ForkJoinPool parallelPool = ForkJoinPool.commonPool();
+
     /**
      * 使用原对象，产生新对象，并进行属性拷贝
      *
@@ -28,7 +61,7 @@ public class BeanUtils {
      * @return 目标对象实例
      */
     public static <T> T map(Object source, Class<T> destClazz) {
-        return MAPPER.map(source, destClazz);
+        return doMap(classOf(source), source, destClazz, CopyPolicy.ALWAYS, defaultEngine);
     }
 
     /**
@@ -41,7 +74,7 @@ public class BeanUtils {
      * @return 目标对象实例
      */
     public static <T> T mapNotNull(Class<?> srcClass, Object source, Class<T> destClazz) {
-        return getNotNullMapper(srcClass, destClazz).map(source, destClazz);
+        return doMap(srcClass, source, destClazz, CopyPolicy.NOT_NULL, defaultEngine);
     }
 
     /**
@@ -54,7 +87,7 @@ public class BeanUtils {
      * @return 目标对象实例
      */
     public static <T> T mapNotBlank(Class<?> srcClass, Object source, Class<T> destClazz) {
-        return getNotBlankMapper(srcClass, destClazz).map(source, destClazz);
+        return doMap(srcClass, source, destClazz, CopyPolicy.NOT_BLANK, defaultEngine);
     }
 
     /**
@@ -67,7 +100,34 @@ public class BeanUtils {
      * @return 目标对象实例
      */
     public static <T> T mapNotEmpty(Class<?> srcClass, Object source, Class<T> destClazz) {
-        return getNotEmptyMapper(srcClass, destClazz).map(source, destClazz);
+        return doMap(srcClass, source, destClazz, CopyPolicy.NOT_EMPTY, defaultEngine);
+    }
+
+    /**
+     * 使用原对象，产生新对象，并使用指定后端进行属性拷贝
+     *
+     * @param source    原对象
+     * @param destClazz 目标类型
+     * @param engine    拷贝后端
+     * @param <T>       目标范型
+     * @return 目标对象实例
+     */
+    public static <T> T map(Object source, Class<T> destClazz, MappingEngine engine) {
+        return map(source, destClazz, CopyPolicy.ALWAYS, engine);
+    }
+
+    /**
+     * 使用原对象，产生新对象，并按指定策略和后端进行属性拷贝
+     *
+     * @param source    原对象
+     * @param destClazz 目标类型
+     * @param policy    拷贝策略
+     * @param engine    拷贝后端
+     * @param <T>       目标范型
+     * @return 目标对象实例
+     */
+    public static <T> T map(Object source, Class<T> destClazz, CopyPolicy policy, MappingEngine engine) {
+        return doMap(classOf(source), source, destClazz, policy, engine);
     }
 
     /**
@@ -81,7 +141,7 @@ public class BeanUtils {
     public static <T> List<T> map(List<?> source, Class<T> destClazz) {
         if (null == source)
             return Collections.emptyList();
-        return source.stream().map(src -> map(src, destClazz)).collect(Collectors.toList());
+        return mapList(source, src -> map(src, destClazz));
     }
 
     /**
@@ -96,7 +156,7 @@ public class BeanUtils {
     public static <T> List<T> mapNotNull(Class<?> srcClass, List<?> source, Class<T> destClazz) {
         if (null == source)
             return Collections.emptyList();
-        return source.stream().map(src -> mapNotNull(srcClass, src, destClazz)).collect(Collectors.toList());
+        return mapList(source, src -> mapNotNull(srcClass, src, destClazz));
     }
 
     /**
@@ -111,7 +171,7 @@ public class BeanUtils {
     public static <T> List<T> mapNotBlank(Class<?> srcClass, List<?> source, Class<T> destClazz) {
         if (null == source)
             return Collections.emptyList();
-        return source.stream().map(src -> mapNotBlank(srcClass, src, destClazz)).collect(Collectors.toList());
+        return mapList(source, src -> mapNotBlank(srcClass, src, destClazz));
     }
 
     /**
@@ -126,7 +186,90 @@ public class BeanUtils {
     public static <T> List<T> mapNotEmpty(Class<?> srcClass, List<?> source, Class<T> destClazz) {
         if (null == source)
             return Collections.emptyList();
-        return source.stream().map(src -> mapNotEmpty(srcClass, src, destClazz)).collect(Collectors.toList());
+        return mapList(source, src -> mapNotEmpty(srcClass, src, destClazz));
+    }
+
+    /**
+     * 惰性拷贝流中的元素，元素在被消费时才逐个拷贝，不会物化整个集合，适合对接数据库游标等大数据量场景
+     *
+     * @param source    原对象流
+     * @param destClazz 目标类型
+     * @param <T>       目标范型
+     * @return 目标对象流
+     */
+    public static <T> Stream<T> mapStream(Stream<?> source, Class<T> destClazz) {
+        if (null == source)
+            return Stream.empty();
+        return source.map(src -> map(src, destClazz));
+    }
+
+    /**
+     * 惰性拷贝流中的元素，并按指定策略进行属性拷贝
+     *
+     * @param source    原对象流
+     * @param destClazz 目标类型
+     * @param policy    拷贝策略
+     * @param <T>       目标范型
+     * @return 目标对象流
+     */
+    public static <T> Stream<T> mapStream(Stream<?> source, Class<T> destClazz, CopyPolicy policy) {
+        if (null == source)
+            return Stream.empty();
+        return source.map(src -> doMap(classOf(src), src, destClazz, policy, defaultEngine));
+    }
+
+    /**
+     * 惰性拷贝迭代器中的元素，每次调用 next 时才拷贝一个元素
+     *
+     * @param source    原对象迭代器
+     * @param destClazz 目标类型
+     * @param <T>       目标范型
+     * @return 目标对象迭代器
+     */
+    public static <T> Iterator<T> mapIterator(Iterator<?> source, Class<T> destClazz) {
+        return mapIterator(source, destClazz, CopyPolicy.ALWAYS);
+    }
+
+    /**
+     * 惰性拷贝迭代器中的元素，并按指定策略进行属性拷贝
+     *
+     * @param source    原对象迭代器
+     * @param destClazz 目标类型
+     * @param policy    拷贝策略
+     * @param <T>       目标范型
+     * @return 目标对象迭代器
+     */
+    public static <T> Iterator<T> mapIterator(Iterator<?> source, Class<T> destClazz, CopyPolicy policy) {
+        if (null == source)
+            return Collections.emptyIterator();
+        return Iterators.transform(source, src -> doMap(classOf(src), src, destClazz, policy, defaultEngine));
+    }
+
+    /**
+     * 惰性拷贝 Iterable 中的元素，每次遍历时重新逐个拷贝
+     *
+     * @param source    原对象集合
+     * @param destClazz 目标类型
+     * @param <T>       目标范型
+     * @return 目标对象集合视图
+     */
+    public static <T> Iterable<T> mapIterable(Iterable<?> source, Class<T> destClazz) {
+        return mapIterable(source, destClazz, CopyPolicy.ALWAYS);
+    }
+
+    /**
+     * 惰性拷贝 Iterable 中的元素，并按指定策略进行属性拷贝
+     *
+     * @param source    原对象集合
+     * @param destClazz 目标类型
+     * @param policy    拷贝策略
+     * @param <T>       目标范型
+     * @return 目标对象集合视图
+     */
+    public static <T> Iterable<T> mapIterable(Iterable<?> source, Class<T> destClazz, CopyPolicy policy) {
+        if (null == source)
+            return Collections.emptyList();
+        return () -> mapIterator(source.iterator(), destClazz, policy);
     }
 
     /**
@@ -136,7 +279,30 @@ public class BeanUtils {
      * @param destination   目标对象
      */
     public static void copy(Object source, Object destination) {
-        MAPPER.map(source, destination);
+        doCopy(classOf(source), source, classOf(destination), destination, CopyPolicy.ALWAYS, defaultEngine);
+    }
+
+    /**
+     * 将指定对象的属性，使用指定后端设置到目标对象下
+     *
+     * @param source        原始对象
+     * @param destination   目标对象
+     * @param engine        拷贝后端
+     */
+    public static void copy(Object source, Object destination, MappingEngine engine) {
+        copy(source, destination, CopyPolicy.ALWAYS, engine);
+    }
+
+    /**
+     * 将指定对象的属性，按指定策略和后端设置到目标对象下
+     *
+     * @param source        原始对象
+     * @param destination   目标对象
+     * @param policy        拷贝策略
+     * @param engine        拷贝后端
+     */
+    public static void copy(Object source, Object destination, CopyPolicy policy, MappingEngine engine) {
+        doCopy(classOf(source), source, classOf(destination), destination, policy, engine);
     }
 
     /**
@@ -148,7 +314,7 @@ public class BeanUtils {
      * @param destination   目标对象
      */
     public static void copyNotNull(Class<?> srcClass, Object source, Class<?> destClass, Object destination) {
-        getNotNullMapper(srcClass, destClass).map(source, destination);
+        doCopy(srcClass, source, destClass, destination, CopyPolicy.NOT_NULL, defaultEngine);
     }
 
     /**
@@ -160,7 +326,7 @@ public class BeanUtils {
      * @param destination   目标对象
      */
     public static void copyNotBlank(Class<?> srcClass, Object source, Class<?> destClass, Object destination) {
-        getNotBlankMapper(srcClass, destClass).map(source, destination);
+        doCopy(srcClass, source, destClass, destination, CopyPolicy.NOT_BLANK, defaultEngine);
     }
 
     /**
@@ -172,33 +338,311 @@ public class BeanUtils {
      * @param destination   目标对象
      */
     public static void copyNotEmpty(Class<?> srcClass, Object source, Class<?> destClass, Object destination) {
-        getNotEmptyMapper(srcClass, destClass).map(source, destination);
+        doCopy(srcClass, source, destClass, destination, CopyPolicy.NOT_EMPTY, defaultEngine);
+    }
+
+    /**
+     * 将 Bean 的可读属性转为 Map，属性值保持原样，不做序列化
+     *
+     * @param source 原对象
+     * @return 属性名与属性值，按属性名排序
+     */
+    public static Map<String, Object> toMap(Object source) {
+        return toMap(source, CopyPolicy.ALWAYS);
+    }
+
+    /**
+     * 将 Bean 的可读属性按指定策略转为 Map，属性值保持原样，不做序列化
+     *
+     * @param source 原对象
+     * @param policy 拷贝策略
+     * @return 属性名与属性值，按属性名排序
+     */
+    public static Map<String, Object> toMap(Object source, CopyPolicy policy) {
+        if (null == source)
+            return Collections.emptyMap();
+        List<Property> properties = PropertyAccessors.of(source.getClass()).readable();
+        Map<String, Object> result = new LinkedHashMap<>(properties.size() * 4 / 3 + 1);
+        for (Property property : properties) {
+            Object value = property.getter.apply(source);
+            if (policy.accept(value))
+                result.put(property.name, value);
+        }
+        return result;
+    }
+
+    /**
+     * 使用 Map 产生新对象，Map 中的键对应目标类型的属性名，不存在的属性被忽略
+     *
+     * @param source    原 Map
+     * @param destClazz 目标类型，需有公共无参构造器
+     * @param <T>       目标范型
+     * @return 目标对象实例
+     */
+    public static <T> T fromMap(Map<String, ?> source, Class<T> destClazz) {
+        return fromMap(source, destClazz, CopyPolicy.ALWAYS);
+    }
+
+    /**
+     * 使用 Map 产生新对象，并按指定策略设置属性
+     * <p>
+     * 值与属性类型不一致时，支持数值类型之间及字符串到枚举的转换，其他情况抛出 {@link IllegalArgumentException}。
+     * 数值转换不能丢失精度：转为整数类型或 BigDecimal 时须能精确表示，转为浮点类型时不能溢出，否则同样抛出该异常
+     * </p>
+     *
+     * @param source    原 Map
+     * @param destClazz 目标类型，需有公共无参构造器
+     * @param policy    拷贝策略
+     * @param <T>       目标范型
+     * @return 目标对象实例
+     */
+    public static <T> T fromMap(Map<String, ?> source, Class<T> destClazz, CopyPolicy policy) {
+        if (null == source)
+            return null;
+        PropertyAccessors accessors = PropertyAccessors.of(destClazz);
+        T destination = destClazz.cast(accessors.newInstance());
+        for (Map.Entry<String, ?> entry : source.entrySet()) {
+            Property property = accessors.writable(entry.getKey());
+            Object value = entry.getValue();
+            if (null == property || !policy.accept(value) || (null == value && property.primitive))
+                continue;
+            property.setter.accept(destination, convert(value, property));
+        }
+        return destination;
+    }
+
+    /**
+     * 获取缓存按策略构建的 Mapper 的注册表，可用于查看命中率等统计信息
+     *
+     * @return Mapper 注册表
+     */
+    public static MapperRegistry getMapperRegistry() {
+        return REGISTRY;
+    }
+
+    /**
+     * 预热指定类型对：构建各拷贝策略的 Mapper 及编译拷贝计划，避免首次拷贝时的延迟
+     * 只通过类型注册与反射读取元数据，不会创建用户类型的实例；Dozer 默认 Mapper(CopyPolicy.ALWAYS)的元数据
+     * 只能在首次拷贝时构建，不在预热范围内
+     *
+     * @param srcClass  原始类型
+     * @param destClass 目标类型
+     */
+    public static void warmUp(Class<?> srcClass, Class<?> destClass) {
+        for (CopyPolicy policy : CopyPolicy.values()) {
+            if (CopyPolicy.ALWAYS != policy)
+                REGISTRY.get(srcClass, destClass, policy);
+        }
+        CopyPlan.of(srcClass, destClass);
+    }
+
+    /**
+     * 设置全局默认的拷贝后端，未显式指定后端的方法均使用该后端
+     *
+     * @param engine 拷贝后端
+     */
+    public static void setDefaultEngine(MappingEngine engine) {
+        defaultEngine = Objects.requireNonNull(engine);
+    }
+
+    /**
+     * 获取全局默认的拷贝后端
+     *
+     * @return 拷贝后端
+     */
+    public static MappingEngine getDefaultEngine() {
+        return defaultEngine;
     }
 
-    private static Mapper getNotNullMapper(Class<?> srcClass, Class<?> destClass) {
-        return DozerBeanMapperBuilder.create().withMappingBuilder(new BeanMappingBuilder() {
-            @Override
-            protected void configure() {
-                mapping(srcClass, destClass, TypeMappingOptions.oneWay(), TypeMappingOptions.mapNull(false));
+    /**
+     * 设置集合并行拷贝的阈值，集合元素数量不小于该值时拆分为多个分块并行拷贝，结果保持原有顺序
+     *
+     * @param threshold 阈值，传入 {@link Integer#MAX_VALUE} 即关闭并行拷贝
+     */
+    public static void setParallelThreshold(int threshold) {
+        if (threshold < 1)
+            throw new IllegalArgumentException("threshold must be positive");
+        parallelThreshold = threshold;
+    }
+
+    /**
+     * 设置集合并行拷贝时每个分块的元素数量
+     *
+     * @param chunkSize 分块大小
+     */
+    public static void setParallelChunkSize(int chunkSize) {
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("chunkSize must be positive");
+        parallelChunkSize = chunkSize;
+    }
+
+    /**
+     * 设置集合并行拷贝使用的线程池，默认为 {@link ForkJoinPool#commonPool()}
+     *
+     * @param pool 线程池
+     */
+    public static void setParallelPool(ForkJoinPool pool) {
+        parallelPool = Objects.requireNonNull(pool);
+    }
+
+    private static <T> List<T> mapList(List<?> source, Function<Object, T> function) {
+        int size = source.size();
+        if (size < parallelThreshold) {
+            List<T> result = new ArrayList<>(size);
+            for (Object src : source)
+                result.add(function.apply(src));
+            return result;
+        }
+        Object[] sources = source.toArray();
+        Object[] targets = new Object[sources.length];
+        parallelPool.invoke(new ChunkedMapTask(sources, targets, 0, sources.length, parallelChunkSize, function));
+        @SuppressWarnings("unchecked")
+        List<T> result = (List<T>) new ArrayList<>(Arrays.asList(targets));
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T doMap(Class<?> srcClass, Object source, Class<T> destClazz, CopyPolicy policy, MappingEngine engine) {
+        if (null != source) {
+            GeneratedMapper<Object, T> generated = (GeneratedMapper<Object, T>) GeneratedMapperRegistry.get(source.getClass(), destClazz);
+            if (null != generated) {
+                T destination = generated.newInstance();
+                generated.copy(source, destination, policy);
+                return destination;
+            }
+        }
+        if (MappingEngine.COMPILED == engine && null != source) {
+            CopyPlan plan = CopyPlan.of(source.getClass(), destClazz);
+            if (null != plan && plan.isInstantiable()) {
+                Object destination = plan.newInstance();
+                plan.copy(source, destination, policy);
+                return destClazz.cast(destination);
             }
-        }).build();
+        }
+        return getMapper(srcClass, destClazz, policy).map(source, destClazz);
     }
 
-    private static Mapper getNotBlankMapper(Class<?> srcClass, Class<?> destClass) {
-        return DozerBeanMapperBuilder.create().withMappingBuilder(new BeanMappingBuilder() {
-            @Override
-            protected void configure() {
-                mapping(srcClass, destClass, TypeMappingOptions.oneWay(), TypeMappingOptions.mapEmptyString(false));
+    @SuppressWarnings("unchecked")
+    private static void doCopy(Class<?> srcClass, Object source, Class<?> destClass, Object destination, CopyPolicy policy, MappingEngine engine) {
+        if (null != source && null != destination) {
+            GeneratedMapper<Object, Object> generated = (GeneratedMapper<Object, Object>) GeneratedMapperRegistry.get(source.getClass(), destination.getClass());
+            if (null != generated) {
+                generated.copy(source, destination, policy);
+                return;
             }
-        }).build();
+        }
+        if (MappingEngine.COMPILED == engine && null != source && null != destination) {
+            CopyPlan plan = CopyPlan.of(source.getClass(), destination.getClass());
+            if (null != plan) {
+                plan.copy(source, destination, policy);
+                return;
+            }
+        }
+        getMapper(srcClass, destClass, policy).map(source, destination);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object convert(Object value, Property property) {
+        Class<?> type = property.type;
+        if (null == value || type.isInstance(value))
+            return value;
+        if (value instanceof Number) {
+            Object number = convertNumber((Number) value, type);
+            if (null != number)
+                return number;
+        }
+        if (value instanceof String && type.isEnum())
+            return Enum.valueOf((Class<? extends Enum>) type, (String) value);
+        throw new IllegalArgumentException("cannot assign " + value.getClass().getName()
+                + " to property '" + property.name + "' of type " + type.getName());
     }
 
-    private static Mapper getNotEmptyMapper(Class<?> srcClass, Class<?> destClass) {
-        return DozerBeanMapperBuilder.create().withMappingBuilder(new BeanMappingBuilder() {
-            @Override
-            protected void configure() {
-                mapping(srcClass, destClass, TypeMappingOptions.oneWay(), TypeMappingOptions.mapNull(false), TypeMappingOptions.mapEmptyString(false));
+    /**
+     * 数值类型之间的转换，整数与 BigDecimal 目标要求精确表示，浮点目标要求不溢出为无穷大
+     *
+     * @return 转换结果，不能无损转换时为 null
+     */
+    private static Object convertNumber(Number number, Class<?> type) {
+        try {
+            if (Double.class == type) {
+                double result = number.doubleValue();
+                return Double.isInfinite(result) && !isInfinite(number) ? null : result;
+            }
+            if (Float.class == type) {
+                float result = number.floatValue();
+                return Float.isInfinite(result) && !isInfinite(number) ? null : result;
+            }
+            BigDecimal decimal = number instanceof BigDecimal ? (BigDecimal) number
+                    : number instanceof BigInteger ? new BigDecimal((BigInteger) number)
+                    : new BigDecimal(number.toString());
+            if (Integer.class == type)
+                return decimal.intValueExact();
+            if (Long.class == type)
+                return decimal.longValueExact();
+            if (Short.class == type)
+                return decimal.shortValueExact();
+            if (Byte.class == type)
+                return decimal.byteValueExact();
+            if (BigDecimal.class == type)
+                return decimal;
+            if (BigInteger.class == type)
+                return decimal.toBigIntegerExact();
+        } catch (ArithmeticException | NumberFormatException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private static boolean isInfinite(Number number) {
+        return (number instanceof Double || number instanceof Float) && Double.isInfinite(number.doubleValue());
+    }
+
+    private static Class<?> classOf(Object object) {
+        return null == object ? null : object.getClass();
+    }
+
+    private static Mapper getMapper(Class<?> srcClass, Class<?> destClass, CopyPolicy policy) {
+        return CopyPolicy.ALWAYS == policy ? MAPPER : REGISTRY.get(srcClass, destClass, policy);
+    }
+
+    /**
+     * 将下标区间二分，直到不大于分块大小后顺序拷贝，结果按下标写回以保持顺序
+     */
+    private static class ChunkedMapTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] sources;
+
+        private final Object[] targets;
+
+        private final int from;
+
+        private final int to;
+
+        private final int chunkSize;
+
+        private final Function<Object, ?> function;
+
+        private ChunkedMapTask(Object[] sources, Object[] targets, int from, int to, int chunkSize, Function<Object, ?> function) {
+            this.sources = sources;
+            this.targets = targets;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.function = function;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++)
+                    targets[i] = function.apply(sources[i]);
+                return;
             }
-        }).build();
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkedMapTask(sources, targets, from, middle, chunkSize, function),
+                    new ChunkedMapTask(sources, targets, middle, to, chunkSize, function));
+        }
     }
 }
@@ -0,0 +1,465 @@
+package top.felixu.common.bean;
+
+import org.objenesis.ObjenesisStd;
+import org.objenesis.instantiator.ObjectInstantiator;
+
+import java.io.File;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 对象深拷贝
+ * <p>
+ * 相比 {@code BeanUtils.map(obj, obj.getClass())} 或 Json 序列化再反序列化，直接按字段复制对象图：
+ * <ul>
+ * <li>每个类型的字段计划只构建一次并缓存</li>
+ * <li>不可变类型(String、基本类型包装类、枚举、java.time、BigDecimal 等)直接共享，不做复制</li>
+ * <li>基本类型数组及元素不可变的数组整体复制，集合按原类型重建</li>
+ * <li>Date、Calendar 等实现了 Cloneable 的 JDK 类型通过其公共的 clone() 复制</li>
+ * <li>对象图中的循环引用及共享引用会被保留</li>
+ * </ul>
+ * StringBuilder、Atomic* 等少数可变 JDK 类型按其公共 API 复制；Charset、Path、Thread、ClassLoader 等不可变、单例或带有身份语义的
+ * JDK 类型，以及其余无法确定如何复制的 JDK 类型，均直接共享引用，不会遍历其内部字段。
+ * </p>
+ *
+ * @author felixu
+ * @since 2019.12.19
+ */
+public class CloneUtils {
+
+    private static final ObjenesisStd OBJENESIS = new ObjenesisStd(true);
+
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigDecimal.class, BigInteger.class, UUID.class, URI.class, Locale.class,
+            Class.class, Currency.class, Optional.class, OptionalInt.class, OptionalLong.class, OptionalDouble.class,
+            Pattern.class, File.class, URL.class));
+
+    /**
+     * 子类同样不可变的 JDK 类型
+     */
+    private static final List<Class<?>> IMMUTABLE_SUPERTYPES = Arrays.asList(
+            Charset.class, Path.class, InetAddress.class, Member.class);
+
+    /**
+     * 带有身份语义或代表外部资源的 JDK 类型，复制没有意义，深拷贝时共享引用，但不视为不可变类型
+     */
+    private static final List<Class<?>> IDENTITY_TYPES = Arrays.asList(
+            TimeZone.class, ClassLoader.class, Thread.class, ThreadGroup.class, FileSystem.class);
+
+    /**
+     * 可按公共 API 复制的可变 JDK 类型
+     */
+    private static final Map<Class<?>, BiFunction<Object, Map<Object, Object>, Object>> COPIERS = new HashMap<>();
+
+    static {
+        COPIERS.put(Object.class, (source, cloned) -> new Object());
+        COPIERS.put(StringBuilder.class, (source, cloned) -> new StringBuilder((StringBuilder) source));
+        COPIERS.put(StringBuffer.class, (source, cloned) -> new StringBuffer((StringBuffer) source));
+        COPIERS.put(AtomicBoolean.class, (source, cloned) -> new AtomicBoolean(((AtomicBoolean) source).get()));
+        COPIERS.put(AtomicInteger.class, (source, cloned) -> new AtomicInteger(((AtomicInteger) source).get()));
+        COPIERS.put(AtomicLong.class, (source, cloned) -> new AtomicLong(((AtomicLong) source).get()));
+        COPIERS.put(AtomicIntegerArray.class, (source, cloned) -> {
+            AtomicIntegerArray array = (AtomicIntegerArray) source;
+            AtomicIntegerArray target = new AtomicIntegerArray(array.length());
+            for (int i = 0; i < array.length(); i++)
+                target.set(i, array.get(i));
+            return target;
+        });
+        COPIERS.put(AtomicLongArray.class, (source, cloned) -> {
+            AtomicLongArray array = (AtomicLongArray) source;
+            AtomicLongArray target = new AtomicLongArray(array.length());
+            for (int i = 0; i < array.length(); i++)
+                target.set(i, array.get(i));
+            return target;
+        });
+        COPIERS.put(AtomicReference.class, (source, cloned) -> {
+            AtomicReference<Object> target = new AtomicReference<>();
+            // 先登记再复制引用的值，以保留循环引用
+            cloned.put(source, target);
+            target.set(deepClone(((AtomicReference<?>) source).get(), cloned));
+            return target;
+        });
+    }
+
+    private static final ClassValue<ClassPlan> PLANS = new ClassValue<ClassPlan>() {
+        @Override
+        protected ClassPlan computeValue(Class<?> type) {
+            return new ClassPlan(type);
+        }
+    };
+
+    private CloneUtils() {
+    }
+
+    /**
+     * 深拷贝给定对象
+     *
+     * @param source 原对象
+     * @param <T>    对象范型
+     * @return 拷贝后的对象，原对象为 null 时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T deepClone(T source) {
+        return (T) deepClone(source, new IdentityHashMap<>());
+    }
+
+    /**
+     * 判断给定类型是否被视为不可变类型，不可变类型的实例在深拷贝时直接共享
+     *
+     * @param type 类型
+     * @return 是否不可变
+     */
+    public static boolean isImmutable(Class<?> type) {
+        return type.isPrimitive() || ClassPlan.isImmutableType(type);
+    }
+
+    private static Object deepClone(Object source, Map<Object, Object> cloned) {
+        if (null == source)
+            return null;
+        ClassPlan plan = PLANS.get(source.getClass());
+        if (Kind.SHARED == plan.kind)
+            return source;
+        Object existing = cloned.get(source);
+        if (null != existing)
+            return existing;
+        switch (plan.kind) {
+            case ARRAY:
+                return cloneArray(source, plan, cloned);
+            case COLLECTION:
+                return cloneCollection((Collection<?>) source, plan, cloned);
+            case MAP:
+                return cloneMap((Map<?, ?>) source, plan, cloned);
+            case CLONEABLE:
+                return cloneCloneable(source, plan, cloned);
+            case COPIER:
+                return cloneWithCopier(source, plan, cloned);
+            default:
+                return cloneBean(source, plan, cloned);
+        }
+    }
+
+    private static Object cloneArray(Object source, ClassPlan plan, Map<Object, Object> cloned) {
+        int length = Array.getLength(source);
+        Object target = Array.newInstance(plan.type.getComponentType(), length);
+        cloned.put(source, target);
+        if (plan.bulk) {
+            System.arraycopy(source, 0, target, 0, length);
+        } else {
+            Object[] sourceArray = (Object[]) source;
+            Object[] targetArray = (Object[]) target;
+            for (int i = 0; i < length; i++)
+                targetArray[i] = deepClone(sourceArray[i], cloned);
+        }
+        return target;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object cloneCollection(Collection<?> source, ClassPlan plan, Map<Object, Object> cloned) {
+        Collection<Object> target;
+        if (source instanceof EnumSet) {
+            // 枚举元素不可变，EnumSet 可直接整体复制
+            target = (Collection<Object>) (Collection<?>) EnumSet.copyOf((EnumSet) source);
+            cloned.put(source, target);
+            return target;
+        }
+        if (source instanceof SortedSet && null != ((SortedSet<?>) source).comparator())
+            target = new TreeSet<>((Comparator<Object>) ((SortedSet<?>) source).comparator());
+        else
+            target = (Collection<Object>) plan.factory.get();
+        cloned.put(source, target);
+        for (Object element : source)
+            target.add(deepClone(element, cloned));
+        return target;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object cloneMap(Map<?, ?> source, ClassPlan plan, Map<Object, Object> cloned) {
+        Map<Object, Object> target;
+        if (source instanceof EnumMap)
+            target = new EnumMap<>((EnumMap) source);
+        else if (source instanceof SortedMap && null != ((SortedMap<?, ?>) source).comparator())
+            target = new TreeMap<>((Comparator<Object>) ((SortedMap<?, ?>) source).comparator());
+        else
+            target = (Map<Object, Object>) plan.factory.get();
+        cloned.put(source, target);
+        for (Map.Entry<?, ?> entry : source.entrySet())
+            target.put(deepClone(entry.getKey(), cloned), deepClone(entry.getValue(), cloned));
+        return target;
+    }
+
+    private static Object cloneCloneable(Object source, ClassPlan plan, Map<Object, Object> cloned) {
+        Object target;
+        try {
+            target = plan.cloner.invoke(source);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+        cloned.put(source, target);
+        return target;
+    }
+
+    private static Object cloneWithCopier(Object source, ClassPlan plan, Map<Object, Object> cloned) {
+        Object target = plan.copier.apply(source, cloned);
+        cloned.put(source, target);
+        return target;
+    }
+
+    private static Object cloneBean(Object source, ClassPlan plan, Map<Object, Object> cloned) {
+        Object target = plan.instantiator.newInstance();
+        cloned.put(source, target);
+        try {
+            for (FieldPlan field : plan.fields)
+                field.copy(source, target, cloned);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+        return target;
+    }
+
+    private enum Kind {
+        SHARED, ARRAY, COLLECTION, MAP, CLONEABLE, COPIER, BEAN
+    }
+
+    /**
+     * 单个类型的拷贝计划
+     */
+    private static final class ClassPlan {
+
+        private final Class<?> type;
+
+        private final Kind kind;
+
+        /**
+         * 数组是否可以整体复制
+         */
+        private boolean bulk;
+
+        private Supplier<Object> factory;
+
+        /**
+         * 可通过 clone() 复制的 JDK 类型的 clone 方法
+         */
+        private Method cloner;
+
+        private BiFunction<Object, Map<Object, Object>, Object> copier;
+
+        private ObjectInstantiator<?> instantiator;
+
+        private FieldPlan[] fields;
+
+        private ClassPlan(Class<?> type) {
+            this.type = type;
+            if (isImmutableType(type) || isIdentityType(type)) {
+                this.kind = Kind.SHARED;
+            } else if (type.isArray()) {
+                this.kind = Kind.ARRAY;
+                Class<?> component = type.getComponentType();
+                this.bulk = component.isPrimitive() || isFinalImmutable(component);
+            } else if (Collection.class.isAssignableFrom(type) && isJdkType(type)) {
+                this.kind = Kind.COLLECTION;
+                this.factory = collectionFactory(type);
+            } else if (Map.class.isAssignableFrom(type) && isJdkType(type)) {
+                this.kind = Kind.MAP;
+                this.factory = factory(type, LinkedHashMap::new);
+            } else if (COPIERS.containsKey(type)) {
+                this.kind = Kind.COPIER;
+                this.copier = COPIERS.get(type);
+            } else if (isJdkType(type) && null != (this.cloner = publicClone(type))) {
+                this.kind = Kind.CLONEABLE;
+            } else if (isJdkType(type)) {
+                // 不遍历 JDK 类型的内部字段
+                this.kind = Kind.SHARED;
+            } else {
+                this.kind = Kind.BEAN;
+                this.instantiator = OBJENESIS.getInstantiatorOf(type);
+                List<FieldPlan> plans = new ArrayList<>();
+                for (Class<?> current = type; null != current && Object.class != current; current = current.getSuperclass()) {
+                    for (Field field : current.getDeclaredFields()) {
+                        if (Modifier.isStatic(field.getModifiers()))
+                            continue;
+                        field.setAccessible(true);
+                        plans.add(new FieldPlan(field));
+                    }
+                }
+                this.fields = plans.toArray(new FieldPlan[0]);
+            }
+        }
+
+        private static boolean isImmutableType(Class<?> type) {
+            return IMMUTABLE_TYPES.contains(type) || type.isEnum()
+                    || (null != type.getSuperclass() && type.getSuperclass().isEnum())
+                    || (type.getName().startsWith("java.time.")
+                    && !type.getName().startsWith("java.time.format.DateTimeFormatterBuilder"))
+                    || isAssignableToAny(type, IMMUTABLE_SUPERTYPES);
+        }
+
+        private static boolean isIdentityType(Class<?> type) {
+            return isAssignableToAny(type, IDENTITY_TYPES);
+        }
+
+        private static boolean isAssignableToAny(Class<?> type, List<Class<?>> supertypes) {
+            for (Class<?> supertype : supertypes) {
+                if (supertype.isAssignableFrom(type))
+                    return true;
+            }
+            return false;
+        }
+
+        /**
+         * 实现了 Cloneable 且有公共 clone() 的类型返回该方法，否则返回 null
+         */
+        private static Method publicClone(Class<?> type) {
+            if (!Cloneable.class.isAssignableFrom(type))
+                return null;
+            try {
+                Method method = type.getMethod("clone");
+                method.setAccessible(true);
+                return method;
+            } catch (NoSuchMethodException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        private static boolean isJdkType(Class<?> type) {
+            String name = type.getName();
+            return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.")
+                    || name.startsWith("com.sun.") || name.startsWith("jdk.");
+        }
+
+        private static Supplier<Object> collectionFactory(Class<?> type) {
+            Supplier<Object> fallback;
+            if (List.class.isAssignableFrom(type))
+                fallback = ArrayList::new;
+            else if (SortedSet.class.isAssignableFrom(type))
+                fallback = TreeSet::new;
+            else if (Set.class.isAssignableFrom(type))
+                fallback = LinkedHashSet::new;
+            else if (Queue.class.isAssignableFrom(type))
+                fallback = ArrayDeque::new;
+            else
+                fallback = ArrayList::new;
+            return factory(type, fallback);
+        }
+
+        /**
+         * 优先使用原类型的公共无参构造器，如 Collections.unmodifiableList 等没有公共构造器的类型则使用可变的替代类型
+         */
+        private static Supplier<Object> factory(Class<?> type, Supplier<Object> fallback) {
+            if (Modifier.isPublic(type.getModifiers()) && !Modifier.isAbstract(type.getModifiers())) {
+                try {
+                    Constructor<?> constructor = type.getConstructor();
+                    return () -> {
+                        try {
+                            return constructor.newInstance();
+                        } catch (ReflectiveOperationException e) {
+                            throw new RuntimeException(e);
+                        }
+                    };
+                } catch (NoSuchMethodException ignored) {
+                    // 使用替代类型
+                }
+            }
+            if (SortedMap.class.isAssignableFrom(type))
+                return TreeMap::new;
+            return fallback;
+        }
+    }
+
+    /**
+     * 字段类型为 final 的不可变类型时，可直接共享而无需查找其计划
+     */
+    private static boolean isFinalImmutable(Class<?> type) {
+        return Modifier.isFinal(type.getModifiers()) && isImmutable(type);
+    }
+
+    /**
+     * 单个字段的拷贝方式，基本类型按类型读写以避免装箱
+     */
+    private static final class FieldPlan {
+
+        private final Field field;
+
+        private final Class<?> type;
+
+        private final boolean shared;
+
+        private FieldPlan(Field field) {
+            this.field = field;
+            this.type = field.getType();
+            this.shared = type.isPrimitive() || isFinalImmutable(type);
+        }
+
+        private void copy(Object source, Object target, Map<Object, Object> cloned) throws IllegalAccessException {
+            if (!type.isPrimitive()) {
+                Object value = field.get(source);
+                field.set(target, shared ? value : deepClone(value, cloned));
+            } else if (int.class == type) {
+                field.setInt(target, field.getInt(source));
+            } else if (long.class == type) {
+                field.setLong(target, field.getLong(source));
+            } else if (boolean.class == type) {
+                field.setBoolean(target, field.getBoolean(source));
+            } else if (double.class == type) {
+                field.setDouble(target, field.getDouble(source));
+            } else if (float.class == type) {
+                field.setFloat(target, field.getFloat(source));
+            } else if (short.class == type) {
+                field.setShort(target, field.getShort(source));
+            } else if (byte.class == type) {
+                field.setByte(target, field.getByte(source));
+            } else {
+                field.setChar(target, field.getChar(source));
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package top.felixu.common.bean;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.primitives.Primitives;
+import top.felixu.common.bean.PropertyAccessors.Property;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 一对类型之间编译好的拷贝计划，供 {@link MappingEngine#COMPILED} 使用
+ * <p>
+ * 计划在首次遇到某对类型时，从双方的 {@link PropertyAccessors} 中挑选同名属性，将 getter 与 setter 一一配对，
+ * 之后的拷贝只是普通的接口调用，不再经过 Dozer。遇到无法安全处理的类型对时返回 null，由调用方回退到 Dozer。
+ * </p>
+ *
+ * @author felixu
+ * @since 2019.12.18
+ */
+final class CopyPlan {
+
+    /**
+     * 无法编译的类型对也会被缓存，避免重复尝试
+     */
+    private static final CopyPlan UNSUPPORTED = new CopyPlan(null, null, null, null);
+
+    private static final LoadingCache<SimpleImmutableEntry<Class<?>, Class<?>>, CopyPlan> PLANS = CacheBuilder.newBuilder()
+            .maximumSize(MapperRegistry.DEFAULT_MAXIMUM_SIZE)
+            .build(new CacheLoader<SimpleImmutableEntry<Class<?>, Class<?>>, CopyPlan>() {
+                @Override
+                public CopyPlan load(SimpleImmutableEntry<Class<?>, Class<?>> key) {
+                    try {
+                        return compile(key.getKey(), key.getValue());
+                    } catch (RuntimeException | LinkageError e) {
+                        return UNSUPPORTED;
+                    }
+                }
+            });
+
+    private final PropertyAccessors destination;
+
+    private final Function<Object, Object>[] getters;
+
+    private final BiConsumer<Object, Object>[] setters;
+
+    private final boolean[] primitives;
+
+    private CopyPlan(PropertyAccessors destination, Function<Object, Object>[] getters,
+                     BiConsumer<Object, Object>[] setters, boolean[] primitives) {
+        this.destination = destination;
+        this.getters = getters;
+        this.setters = setters;
+        this.primitives = primitives;
+    }
+
+    /**
+     * 获取两种类型之间的拷贝计划
+     *
+     * @param srcClass  原始类型
+     * @param destClass 目标类型
+     * @return 拷贝计划，无法编译时返回 null
+     */
+    static CopyPlan of(Class<?> srcClass, Class<?> destClass) {
+        CopyPlan plan = PLANS.getUnchecked(new SimpleImmutableEntry<>(srcClass, destClass));
+        return plan == UNSUPPORTED ? null : plan;
+    }
+
+    /**
+     * 当前计划的目标类型是否可通过无参构造器实例化
+     */
+    boolean isInstantiable() {
+        return destination.isInstantiable();
+    }
+
+    /**
+     * 使用无参构造器创建目标对象
+     */
+    Object newInstance() {
+        return destination.newInstance();
+    }
+
+    /**
+     * 按计划将原对象的属性设置到目标对象
+     *
+     * @param source      原对象
+     * @param destination 目标对象
+     * @param policy      拷贝策略
+     */
+    void copy(Object source, Object destination, CopyPolicy policy) {
+        for (int i = 0; i < getters.length; i++) {
+            Object value = getters[i].apply(source);
+            if (!policy.accept(value) || (null == value && primitives[i]))
+                continue;
+            setters[i].accept(destination, value);
+        }
+    }
+
+    private static CopyPlan compile(Class<?> srcClass, Class<?> destClass) {
+        if (!isBean(srcClass) || !isBean(destClass))
+            return UNSUPPORTED;
+        PropertyAccessors source = PropertyAccessors.of(srcClass);
+        PropertyAccessors destination = PropertyAccessors.of(destClass);
+        List<Function<Object, Object>> getters = new ArrayList<>();
+        List<BiConsumer<Object, Object>> setters = new ArrayList<>();
+        List<Boolean> primitives = new ArrayList<>();
+        for (Property read : source.readable()) {
+            Property write = destination.writable(read.name);
+            if (null == write)
+                continue;
+            // 类型不一致或非简单类型时，Dozer 会做转换或深拷贝，交给 Dozer 处理以保持语义一致
+            if (read.type != write.type || !isSimple(write.type))
+                return UNSUPPORTED;
+            getters.add(read.getter);
+            setters.add(write.setter);
+            primitives.add(write.primitive);
+        }
+        boolean[] primitiveArray = new boolean[primitives.size()];
+        for (int i = 0; i < primitiveArray.length; i++)
+            primitiveArray[i] = primitives.get(i);
+        @SuppressWarnings("unchecked")
+        Function<Object, Object>[] getterArray = getters.toArray((Function<Object, Object>[]) new Function<?, ?>[0]);
+        @SuppressWarnings("unchecked")
+        BiConsumer<Object, Object>[] setterArray = setters.toArray((BiConsumer<Object, Object>[]) new BiConsumer<?, ?>[0]);
+        return new CopyPlan(destination, getterArray, setterArray, primitiveArray);
+    }
+
+    private static boolean isBean(Class<?> type) {
+        return !isSimple(type) && !type.isArray() && !type.isInterface()
+                && !Iterable.class.isAssignableFrom(type) && !Map.class.isAssignableFrom(type);
+    }
+
+    /**
+     * 传入的类型需已包装
+     */
+    private static boolean isSimple(Class<?> type) {
+        return type.isPrimitive() || Primitives.isWrapperType(type) || type.isEnum()
+                || type == String.class || type == BigDecimal.class || type == BigInteger.class
+                || type.getName().startsWith("java.time.");
+    }
+}
@@ -0,0 +1,83 @@
+package top.felixu.common.bean;
+
+import com.github.dozermapper.core.loader.api.TypeMappingOption;
+import com.github.dozermapper.core.loader.api.TypeMappingOptions;
+
+/**
+ * 属性拷贝时对源属性值的过滤策略
+ *
+ * @author felixu
+ * @since 2019.12.18
+ */
+public enum CopyPolicy {
+
+    /**
+     * 拷贝全部属性
+     */
+    ALWAYS {
+        @Override
+        public boolean accept(Object value) {
+            return true;
+        }
+    },
+
+    /**
+     * 只拷贝不为 null 的属性
+     */
+    NOT_NULL(TypeMappingOptions.mapNull(false)) {
+        @Override
+        public boolean accept(Object value) {
+            return null != value;
+        }
+    },
+
+    /**
+     * 只拷贝不为空字符的属性
+     */
+    NOT_BLANK(TypeMappingOptions.mapEmptyString(false)) {
+        @Override
+        public boolean accept(Object value) {
+            return !"".equals(value);
+        }
+    },
+
+    /**
+     * 只拷贝不为 null 不为空字符的属性
+     */
+    NOT_EMPTY(TypeMappingOptions.mapNull(false), TypeMappingOptions.mapEmptyString(false)) {
+        @Override
+        public boolean accept(Object value) {
+            return null != value && !"".equals(value);
+        }
+    },
+    ;
+
+    /**
+     * 对应的 Dozer 映射选项
+     */
+    private final TypeMappingOption[] options;
+
+    CopyPolicy(TypeMappingOption... options) {
+        this.options = options;
+    }
+
+    /**
+     * 判断源属性值在该策略下是否需要被拷贝，语义与 Dozer 的 mapNull/mapEmptyString 选项一致
+     *
+     * @param value 源属性值
+     * @return 是否拷贝
+     */
+    public abstract boolean accept(Object value);
+
+    /**
+     * 获取该策略对应的 Dozer 映射选项(已包含单向映射)
+     *
+     * @return 映射选项
+     */
+    TypeMappingOption[] getOptions() {
+        TypeMappingOption[] result = new TypeMappingOption[options.length + 1];
+        result[0] = TypeMappingOptions.oneWay();
+        System.arraycopy(options, 0, result, 1, options.length);
+        return result;
+    }
+}
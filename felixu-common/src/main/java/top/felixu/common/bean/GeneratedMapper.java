@@ -0,0 +1,42 @@
+package top.felixu.common.bean;
+
+/**
+ * 编译期生成的拷贝器，由 felixu-common-processor 根据 {@link MapperPair} 声明生成
+ * <p>
+ * 生成的实现直接调用 getter/setter，没有任何反射，{@link BeanUtils} 会优先使用已注册的生成拷贝器
+ * </p>
+ *
+ * @param <S> 原始类型
+ * @param <D> 目标类型
+ * @author felixu
+ * @since 2019.12.18
+ * @see GeneratedMapperRegistry
+ */
+public interface GeneratedMapper<S, D> {
+
+    /**
+     * @return 原始类型
+     */
+    Class<S> sourceClass();
+
+    /**
+     * @return 目标类型
+     */
+    Class<D> destinationClass();
+
+    /**
+     * 使用无参构造器创建目标对象
+     *
+     * @return 目标对象
+     */
+    D newInstance();
+
+    /**
+     * 按指定策略将原对象的属性设置到目标对象
+     *
+     * @param source      原对象
+     * @param destination 目标对象
+     * @param policy      拷贝策略
+     */
+    void copy(S source, D destination, CopyPolicy policy);
+}
@@ -0,0 +1,65 @@
+package top.felixu.common.bean;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 编译期生成的拷贝器注册表
+ * <p>
+ * 启动时通过 {@link ServiceLoader} 发现 felixu-common-processor 生成的 {@link GeneratedMapper}，
+ * 也可通过 {@link #register(GeneratedMapper)} 手动注册。
+ * </p>
+ *
+ * @author felixu
+ * @since 2019.12.18
+ */
+public class GeneratedMapperRegistry {
+
+    private static final Map<SimpleImmutableEntry<Class<?>, Class<?>>, GeneratedMapper<?, ?>> MAPPERS = new ConcurrentHashMap<>();
+
+    static {
+        load(GeneratedMapperRegistry.class.getClassLoader());
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        if (null != contextClassLoader && contextClassLoader != GeneratedMapperRegistry.class.getClassLoader())
+            load(contextClassLoader);
+    }
+
+    private GeneratedMapperRegistry() {
+    }
+
+    /**
+     * 手动注册一个拷贝器，相同类型对的拷贝器会被覆盖
+     *
+     * @param mapper 拷贝器
+     */
+    public static void register(GeneratedMapper<?, ?> mapper) {
+        MAPPERS.put(new SimpleImmutableEntry<>(mapper.sourceClass(), mapper.destinationClass()), mapper);
+    }
+
+    /**
+     * 从指定类加载器中发现并注册生成的拷贝器
+     *
+     * @param classLoader 类加载器
+     */
+    @SuppressWarnings("rawtypes")
+    public static void load(ClassLoader classLoader) {
+        for (GeneratedMapper mapper : ServiceLoader.load(GeneratedMapper.class, classLoader))
+            register(mapper);
+    }
+
+    /**
+     * 获取指定类型对的拷贝器
+     *
+     * @param srcClass  原始类型
+     * @param destClass 目标类型
+     * @return 拷贝器，不存在时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, D> GeneratedMapper<S, D> get(Class<S> srcClass, Class<D> destClass) {
+        if (MAPPERS.isEmpty())
+            return null;
+        return (GeneratedMapper<S, D>) MAPPERS.get(new SimpleImmutableEntry<>(srcClass, destClass));
+    }
+}
@@ -0,0 +1,34 @@
+package top.felixu.common.bean;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明需要在编译期生成 {@link GeneratedMapper} 的类型对，可标注在任意类型上，可重复标注
+ * <p>
+ * 需要将 felixu-common-processor 加入注解处理器路径，生成的拷贝器与被标注类型位于同一包下
+ * </p>
+ *
+ * @author felixu
+ * @since 2019.12.18
+ */
+@Documented
+@Repeatable(MapperPairs.class)
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface MapperPair {
+
+    /**
+     * @return 原始类型
+     */
+    Class<?> source();
+
+    /**
+     * @return 目标类型
+     */
+    Class<?> target();
+}
@@ -0,0 +1,21 @@
+package top.felixu.common.bean;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@link MapperPair} 的容器注解
+ *
+ * @author felixu
+ * @since 2019.12.18
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface MapperPairs {
+
+    MapperPair[] value();
+}
@@ -0,0 +1,129 @@
+package top.felixu.common.bean;
+
+import com.github.dozermapper.core.DozerBeanMapperBuilder;
+import com.github.dozermapper.core.Mapper;
+import com.github.dozermapper.core.loader.api.BeanMappingBuilder;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+
+import java.util.Objects;
+
+/**
+ * 按(原始类型, 目标类型, 拷贝策略)缓存 Dozer {@link Mapper}，避免每次拷贝都重新构建映射元数据
+ * <p>
+ * 缓存是线程安全且有界的，超出容量时按 LRU 淘汰，以免在频繁加载类的环境中持有过多的类引用。
+ * 命中、未命中及构建耗时等统计可通过 {@link #stats()} 获取。
+ * </p>
+ *
+ * @author felixu
+ * @since 2019.12.18
+ */
+public class MapperRegistry {
+
+    /**
+     * 默认最多缓存的 Mapper 数量
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 1024;
+
+    private final LoadingCache<Key, Mapper> cache;
+
+    public MapperRegistry() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * @param maximumSize 最多缓存的 Mapper 数量
+     */
+    public MapperRegistry(long maximumSize) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build(new CacheLoader<Key, Mapper>() {
+                    @Override
+                    public Mapper load(Key key) {
+                        return build(key);
+                    }
+                });
+    }
+
+    /**
+     * 获取指定类型与策略对应的 Mapper，不存在时构建并缓存
+     *
+     * @param srcClass  原始类型
+     * @param destClass 目标类型
+     * @param policy    拷贝策略
+     * @return Mapper
+     */
+    public Mapper get(Class<?> srcClass, Class<?> destClass, CopyPolicy policy) {
+        return cache.getUnchecked(new Key(srcClass, destClass, policy));
+    }
+
+    /**
+     * 缓存统计信息，包括命中数、未命中数、淘汰数及构建总耗时等
+     *
+     * @return 统计信息
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * 当前缓存的 Mapper 数量
+     *
+     * @return 数量
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * 清空所有缓存的 Mapper
+     */
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    private static Mapper build(Key key) {
+        return DozerBeanMapperBuilder.create().withMappingBuilder(new BeanMappingBuilder() {
+            @Override
+            protected void configure() {
+                mapping(key.srcClass, key.destClass, key.policy.getOptions());
+            }
+        }).build();
+    }
+
+    private static final class Key {
+
+        private final Class<?> srcClass;
+
+        private final Class<?> destClass;
+
+        private final CopyPolicy policy;
+
+        private final int hash;
+
+        private Key(Class<?> srcClass, Class<?> destClass, CopyPolicy policy) {
+            this.srcClass = Objects.requireNonNull(srcClass);
+            this.destClass = Objects.requireNonNull(destClass);
+            this.policy = Objects.requireNonNull(policy);
+            this.hash = Objects.hash(srcClass, destClass, policy);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key key = (Key) o;
+            return srcClass == key.srcClass && destClass == key.destClass && policy == key.policy;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
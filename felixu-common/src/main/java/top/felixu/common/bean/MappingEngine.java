@@ -0,0 +1,22 @@
+package top.felixu.common.bean;
+
+/**
+ * {@link BeanUtils} 执行属性拷贝时使用的后端
+ *
+ * @author felixu
+ * @since 2019.12.18
+ */
+public enum MappingEngine {
+
+    /**
+     * 使用 Dozer 反射拷贝，支持嵌套对象、集合及类型转换
+     */
+    DOZER,
+
+    /**
+     * 首次遇到某对类型时基于 {@link java.lang.invoke.LambdaMetafactory} 编译拷贝计划，之后直接调用 getter/setter；
+     * 仅支持同名同类型的简单属性(基本类型及其包装类、String、枚举、BigDecimal、BigInteger、java.time)，
+     * 无法处理的类型对会自动回退到 {@link #DOZER}
+     */
+    COMPILED,
+}
@@ -0,0 +1,234 @@
+package top.felixu.common.bean;
+
+import com.google.common.primitives.Primitives;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 单个类型预先构建好的属性访问表，每个类型只构建一次
+ * <p>
+ * 对本类可见的公共类型与方法，通过 {@link LambdaMetafactory} 编译为函数式接口实例，调用时不经过反射；
+ * 其他情况退化为 {@link Method#invoke(Object, Object...)}。
+ * </p>
+ *
+ * @author felixu
+ * @since 2019.12.19
+ */
+final class PropertyAccessors {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassValue<PropertyAccessors> CACHE = new ClassValue<PropertyAccessors>() {
+        @Override
+        protected PropertyAccessors computeValue(Class<?> type) {
+            return new PropertyAccessors(type);
+        }
+    };
+
+    /**
+     * 无公共无参构造器时为 null
+     */
+    private final Supplier<Object> constructor;
+
+    /**
+     * 可读的属性，保持 Introspector 给出的顺序
+     */
+    private final List<Property> readable;
+
+    /**
+     * 可写的属性，按属性名索引
+     */
+    private final Map<String, Property> writable;
+
+    private PropertyAccessors(Class<?> type) {
+        PropertyDescriptor[] descriptors;
+        try {
+            descriptors = Introspector.getBeanInfo(type, Object.class).getPropertyDescriptors();
+        } catch (IntrospectionException e) {
+            throw new IllegalArgumentException(e);
+        }
+        List<Property> readable = new ArrayList<>(descriptors.length);
+        Map<String, Property> writable = new HashMap<>(descriptors.length * 4 / 3 + 1);
+        for (PropertyDescriptor descriptor : descriptors) {
+            if (null == descriptor.getPropertyType())
+                continue;
+            Property property = new Property(descriptor);
+            if (null != property.getter)
+                readable.add(property);
+            if (null != property.setter)
+                writable.put(property.name, property);
+        }
+        this.constructor = constructor(type);
+        this.readable = Collections.unmodifiableList(readable);
+        this.writable = Collections.unmodifiableMap(writable);
+    }
+
+    static PropertyAccessors of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    boolean isInstantiable() {
+        return null != constructor;
+    }
+
+    Object newInstance() {
+        if (null == constructor)
+            throw new IllegalArgumentException("no public no-arg constructor");
+        return constructor.get();
+    }
+
+    List<Property> readable() {
+        return readable;
+    }
+
+    Property writable(String name) {
+        return writable.get(name);
+    }
+
+    /**
+     * 单个属性
+     */
+    static final class Property {
+
+        final String name;
+
+        /**
+         * 属性类型，基本类型已包装
+         */
+        final Class<?> type;
+
+        final boolean primitive;
+
+        final Function<Object, Object> getter;
+
+        final BiConsumer<Object, Object> setter;
+
+        private Property(PropertyDescriptor descriptor) {
+            this.name = descriptor.getName();
+            this.primitive = descriptor.getPropertyType().isPrimitive();
+            this.type = Primitives.wrap(descriptor.getPropertyType());
+            this.getter = null == descriptor.getReadMethod() ? null : getter(descriptor.getReadMethod());
+            this.setter = null == descriptor.getWriteMethod() ? null : setter(descriptor.getWriteMethod());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> constructor(Class<?> type) {
+        if (Modifier.isAbstract(type.getModifiers()) || type.isInterface())
+            return null;
+        Constructor<?> constructor;
+        try {
+            constructor = type.getConstructor();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+        if (isAccessible(type)) {
+            try {
+                MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get", MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class), handle, MethodType.methodType(type));
+                return (Supplier<Object>) site.getTarget().invokeExact();
+            } catch (Throwable ignored) {
+                // 退化为反射
+            }
+        }
+        constructor.setAccessible(true);
+        return () -> {
+            try {
+                return constructor.newInstance();
+            } catch (InvocationTargetException e) {
+                throw new RuntimeException(e.getCause());
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(Method method) {
+        if (isAccessible(method)) {
+            try {
+                MethodHandle handle = LOOKUP.unreflect(method);
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply", MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class), handle,
+                        MethodType.methodType(Primitives.wrap(method.getReturnType()), method.getDeclaringClass()));
+                return (Function<Object, Object>) site.getTarget().invokeExact();
+            } catch (Throwable ignored) {
+                // 退化为反射
+            }
+        }
+        method.setAccessible(true);
+        return bean -> {
+            try {
+                return method.invoke(bean);
+            } catch (InvocationTargetException e) {
+                throw new RuntimeException(e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(Method method) {
+        if (isAccessible(method)) {
+            try {
+                MethodHandle handle = LOOKUP.unreflect(method);
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class), handle,
+                        MethodType.methodType(void.class, method.getDeclaringClass(), Primitives.wrap(method.getParameterTypes()[0])));
+                return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+            } catch (Throwable ignored) {
+                // 退化为反射
+            }
+        }
+        method.setAccessible(true);
+        return (bean, value) -> {
+            try {
+                method.invoke(bean, value);
+            } catch (InvocationTargetException e) {
+                throw new RuntimeException(e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    /**
+     * 生成的 lambda 类寄宿在本类中，只能访问对本类可见的公共类型与方法
+     */
+    private static boolean isAccessible(Class<?> clazz) {
+        for (Class<?> current = clazz; null != current; current = current.getEnclosingClass()) {
+            if (!Modifier.isPublic(current.getModifiers()))
+                return false;
+        }
+        try {
+            return Class.forName(clazz.getName(), false, PropertyAccessors.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static boolean isAccessible(Method method) {
+        return Modifier.isPublic(method.getModifiers()) && isAccessible(method.getDeclaringClass());
+    }
+}
@@ -0,0 +1,347 @@
+package top.felixu.common.date;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 工作日历，支持法定节假日与调休补班
+ * <p>
+ * 每年以一个位图保存，第 n 位表示该年第 n + 1 天是否为工作日：
+ * <ul>
+ * <li>{@link #isWorkday(LocalDate)} 为一次位运算，O(1)</li>
+ * <li>{@link #countWorkdays(LocalDate, LocalDate)} 按 64 天一组做 popcount，不逐日遍历</li>
+ * <li>{@link #addWorkdays(LocalDate, int)} 先按组跳过，再在组内定位</li>
+ * </ul>
+ * 未在日历中出现的年份按周一至周五为工作日，这类年份的位图只取决于元旦是星期几及是否闰年，共 14 种，全局共享，
+ * 因此查询任意跨度的年份也不会增加内存占用。实例创建后不可修改，可在多线程间共享。
+ * </p>
+ * <p>
+ * 日历文件为 UTF-8 文本，每行一个日期及其类型，以空白分隔，# 开头的行与空行忽略：
+ * <pre>
+ * # 2020 国庆、中秋
+ * 2020-10-01 休
+ * 2020-10-10 班
+ * </pre>
+ * 类型可写作 休/holiday 或 班/workday。
+ * </p>
+ *
+ * @author felixu
+ * @since 2019.12.20
+ */
+public final class BusinessCalendar {
+
+    private static final int WORDS = 6;
+
+    /**
+     * 周末规则下的位图，下标为元旦的星期(周一为 0) * 2 + 是否闰年
+     */
+    private static final long[][] WEEKEND_BITS = new long[14][];
+
+    static {
+        for (int dayOfWeek = 0; dayOfWeek < 7; dayOfWeek++) {
+            WEEKEND_BITS[dayOfWeek * 2] = weekendBits(dayOfWeek, 365);
+            WEEKEND_BITS[dayOfWeek * 2 + 1] = weekendBits(dayOfWeek, 366);
+        }
+    }
+
+    private static final BusinessCalendar WEEKENDS = new BusinessCalendar(Collections.emptyMap());
+
+    /**
+     * 含有节假日或补班日的年份
+     */
+    private final Map<Integer, long[]> years;
+
+    private BusinessCalendar(Map<Integer, long[]> years) {
+        this.years = new HashMap<>(years);
+    }
+
+    /**
+     * 只以周六、周日为休息日的日历，与 {@link DateTimeUtils#isWeekend(LocalDate)} 一致
+     *
+     * @return 工作日历
+     */
+    public static BusinessCalendar weekends() {
+        return WEEKENDS;
+    }
+
+    /**
+     * 在周末规则的基础上，指定休息日与补班日创建日历
+     *
+     * @param holidays 休息日
+     * @param workdays 补班日
+     * @return 工作日历
+     */
+    public static BusinessCalendar of(Collection<LocalDate> holidays, Collection<LocalDate> workdays) {
+        Map<Integer, long[]> years = new HashMap<>();
+        for (LocalDate holiday : holidays) {
+            int day = holiday.getDayOfYear() - 1;
+            years.computeIfAbsent(holiday.getYear(), BusinessCalendar::weekendBits)[day >>> 6] &= ~(1L << day);
+        }
+        for (LocalDate workday : workdays) {
+            int day = workday.getDayOfYear() - 1;
+            years.computeIfAbsent(workday.getYear(), BusinessCalendar::weekendBits)[day >>> 6] |= 1L << day;
+        }
+        return new BusinessCalendar(years);
+    }
+
+    /**
+     * 从本地文件加载日历
+     *
+     * @param path 日历文件
+     * @return 工作日历
+     */
+    public static BusinessCalendar load(Path path) {
+        try (InputStream in = Files.newInputStream(path)) {
+            return load(in);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 从输入流加载日历，不会关闭输入流
+     *
+     * @param in 日历内容
+     * @return 工作日历
+     */
+    public static BusinessCalendar load(InputStream in) {
+        List<LocalDate> holidays = new ArrayList<>();
+        List<LocalDate> workdays = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        try {
+            String line;
+            int number = 0;
+            while (null != (line = reader.readLine())) {
+                number++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
+                String[] parts = line.split("\\s+");
+                if (2 != parts.length)
+                    throw new IllegalArgumentException("line " + number + ": expected \"<date> <type>\", got \"" + line + "\"");
+                LocalDate date;
+                try {
+                    date = LocalDate.parse(parts[0]);
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException("line " + number + ": invalid date \"" + parts[0] + "\"", e);
+                }
+                if ("休".equals(parts[1]) || "holiday".equalsIgnoreCase(parts[1]))
+                    holidays.add(date);
+                else if ("班".equals(parts[1]) || "workday".equalsIgnoreCase(parts[1]))
+                    workdays.add(date);
+                else
+                    throw new IllegalArgumentException("line " + number + ": unknown type \"" + parts[1] + "\"");
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return of(holidays, workdays);
+    }
+
+    /**
+     * 判断给定日期是否为工作日
+     *
+     * @param date 给定日期
+     * @return 是否工作日
+     */
+    public boolean isWorkday(LocalDate date) {
+        int day = date.getDayOfYear() - 1;
+        return 0 != (bits(date.getYear())[day >>> 6] & 1L << day);
+    }
+
+    /**
+     * 统计给定时间段(含 start 和 end 在内)中的工作日天数，start 晚于 end 时为 0
+     *
+     * @param start 开始日期
+     * @param end   结束日期
+     * @return 工作日天数
+     */
+    public long countWorkdays(LocalDate start, LocalDate end) {
+        if (start.isAfter(end))
+            return 0;
+        long count = 0;
+        for (int year = start.getYear(); year <= end.getYear(); year++) {
+            int from = year == start.getYear() ? start.getDayOfYear() - 1 : 0;
+            int to = year == end.getYear() ? end.getDayOfYear() - 1 : Year.of(year).length() - 1;
+            count += count(bits(year), from, to);
+        }
+        return count;
+    }
+
+    /**
+     * 统计日期区间中的工作日天数
+     *
+     * @param range 日期区间
+     * @return 工作日天数
+     */
+    public long countWorkdays(DateRange range) {
+        return range.isEmpty() ? 0 : countWorkdays(range.getStart(), range.getEnd());
+    }
+
+    /**
+     * 日期区间中的全部工作日，按位图中的置位逐个取出，不逐日判断
+     *
+     * @param range 日期区间
+     * @return 工作日列表
+     */
+    public List<LocalDate> workdays(DateRange range) {
+        List<LocalDate> result = new ArrayList<>();
+        if (range.isEmpty())
+            return result;
+        LocalDate start = range.getStart();
+        LocalDate end = range.getEnd();
+        for (int year = start.getYear(); year <= end.getYear(); year++) {
+            int from = year == start.getYear() ? start.getDayOfYear() - 1 : 0;
+            int to = year == end.getYear() ? end.getDayOfYear() - 1 : Year.of(year).length() - 1;
+            long[] bits = bits(year);
+            for (int word = from >>> 6; word <= to >>> 6; word++) {
+                long value = bits[word] & mask(word, from, to);
+                while (0 != value) {
+                    result.add(LocalDate.ofYearDay(year, (word << 6) + Long.numberOfTrailingZeros(value) + 1));
+                    value &= value - 1;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 给定日期之后(amount 为负时之前)的第 amount 个工作日，给定日期本身不计入，amount 为 0 时返回给定日期
+     *
+     * @param date   给定日期
+     * @param amount 工作日天数
+     * @return 目标日期
+     */
+    public LocalDate addWorkdays(LocalDate date, int amount) {
+        if (0 == amount)
+            return date;
+        long remaining = Math.abs((long) amount);
+        int year = date.getYear();
+        if (amount > 0) {
+            int from = date.getDayOfYear();
+            while (true) {
+                int last = Year.of(year).length() - 1;
+                if (from <= last) {
+                    long[] bits = bits(year);
+                    int available = count(bits, from, last);
+                    if (available >= remaining)
+                        return LocalDate.ofYearDay(year, selectForward(bits, from, (int) remaining) + 1);
+                    remaining -= available;
+                }
+                year++;
+                from = 0;
+            }
+        }
+        int to = date.getDayOfYear() - 2;
+        while (true) {
+            if (to >= 0) {
+                long[] bits = bits(year);
+                int available = count(bits, 0, to);
+                if (available >= remaining)
+                    return LocalDate.ofYearDay(year, selectBackward(bits, to, (int) remaining) + 1);
+                remaining -= available;
+            }
+            year--;
+            to = Year.of(year).length() - 1;
+        }
+    }
+
+    private long[] bits(int year) {
+        long[] bits = years.get(year);
+        if (null != bits)
+            return bits;
+        int dayOfWeek = LocalDate.of(year, 1, 1).getDayOfWeek().getValue() - 1;
+        return WEEKEND_BITS[dayOfWeek * 2 + (Year.isLeap(year) ? 1 : 0)];
+    }
+
+    /**
+     * 按周一至周五为工作日生成一年的位图，返回新数组，可修改
+     */
+    private static long[] weekendBits(int year) {
+        return weekendBits(LocalDate.of(year, 1, 1).getDayOfWeek().getValue() - 1, Year.of(year).length());
+    }
+
+    /**
+     * @param dayOfWeek 元旦的星期，周一为 0
+     * @param length    全年天数
+     */
+    private static long[] weekendBits(int dayOfWeek, int length) {
+        long[] bits = new long[WORDS];
+        for (int day = 0; day < length; day++) {
+            if (dayOfWeek < 5)
+                bits[day >>> 6] |= 1L << day;
+            dayOfWeek = 6 == dayOfWeek ? 0 : dayOfWeek + 1;
+        }
+        return bits;
+    }
+
+    /**
+     * 第 word 组中落在 [from, to] 内的位
+     */
+    private static long mask(int word, int from, int to) {
+        long mask = -1L;
+        if (word == from >>> 6)
+            mask &= -1L << from;
+        if (word == to >>> 6)
+            mask &= -1L >>> (63 - (to & 63));
+        return mask;
+    }
+
+    /**
+     * [from, to] 内置位的个数
+     */
+    private static int count(long[] bits, int from, int to) {
+        int count = 0;
+        for (int word = from >>> 6; word <= to >>> 6; word++)
+            count += Long.bitCount(bits[word] & mask(word, from, to));
+        return count;
+    }
+
+    /**
+     * 从 from 向后第 n 个置位的下标，调用方保证存在
+     */
+    private static int selectForward(long[] bits, int from, int n) {
+        for (int word = from >>> 6; ; word++) {
+            long value = bits[word] & (word == from >>> 6 ? -1L << from : -1L);
+            int count = Long.bitCount(value);
+            if (count < n) {
+                n -= count;
+                continue;
+            }
+            for (int i = 1; i < n; i++)
+                value &= value - 1;
+            return (word << 6) + Long.numberOfTrailingZeros(value);
+        }
+    }
+
+    /**
+     * 从 to 向前第 n 个置位的下标，调用方保证存在
+     */
+    private static int selectBackward(long[] bits, int to, int n) {
+        for (int word = to >>> 6; ; word--) {
+            long value = bits[word] & (word == to >>> 6 ? -1L >>> (63 - (to & 63)) : -1L);
+            int count = Long.bitCount(value);
+            if (count < n) {
+                n -= count;
+                continue;
+            }
+            for (int i = 1; i < n; i++)
+                value &= ~Long.highestOneBit(value);
+            return (word << 6) + 63 - Long.numberOfLeadingZeros(value);
+        }
+    }
+}
@@ -2,12 +2,17 @@ package top.felixu.common.date;
 
 import lombok.Getter;
 
+import java.nio.charset.StandardCharsets;
+import java.text.ParsePosition;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
 import java.util.Date;
 
 /**
@@ -56,6 +61,21 @@ public enum DateFormatter {
     @Getter
     private DateTimeFormatter formatter;
 
+    /**
+     * 固定布局的格式化器，格式需要区域设置等逻辑(如 CH_WEEK)时为 null
+     */
+    private FixedLayout layout;
+
+    /**
+     * 格式化结果的最小时间单位，用于判断缓存的当前时间是否仍然有效
+     */
+    private ChronoUnit precision;
+
+    /**
+     * 最近一次格式化的当前时间
+     */
+    private volatile CachedNow cachedNow;
+
     /**
      * 构造
      *
@@ -64,15 +84,38 @@ public enum DateFormatter {
     DateFormatter(String pattern) {
         this.pattern = pattern;
         this.formatter = DateTimeFormatter.ofPattern(pattern);
+        this.layout = FixedLayout.compile(pattern);
+        this.precision = precisionOf(pattern);
     }
 
     /**
-     * 按当前格式返回当前时间格式化后的结果
+     * 按当前格式返回 {@link DateTimeUtils#getZone()} 时区下当前时间格式化后的结果
      *
      * @return 当前时间格式化后的字符串
      */
     public String now() {
-        return this.formatter.format(LocalDateTime.now());
+        return this.format(LocalDateTime.now(DateTimeUtils.getZone()));
+    }
+
+    /**
+     * 按当前格式返回当前时间格式化后的结果，同一秒(不含秒的格式为同一分钟，依此类推)内复用上一次的结果
+     * 结果仍有效时只读取一次 {@link System#currentTimeMillis()} 与两个 volatile 字段；失效时由调用线程重新格式化并替换，无需加锁，
+     * 适合日志、ID 生成等同一时间单位内大量调用的场景
+     *
+     * @return 当前时间格式化后的字符串
+     */
+    public String cachedNow() {
+        long millis = System.currentTimeMillis();
+        ZoneId zone = DateTimeUtils.getZone();
+        CachedNow current = this.cachedNow;
+        // 时区被修改后缓存的结果随之失效
+        if (null != current && millis >= current.from && millis < current.until && current.zone.equals(zone))
+            return current.text;
+        LocalDateTime now = DateTimeUtils.toLocalDateTime(millis, zone);
+        long until = DateTimeUtils.toEpochMilli(now.truncatedTo(this.precision).plus(1, this.precision), zone);
+        current = new CachedNow(this.format(now), zone, millis, until);
+        this.cachedNow = current;
+        return current.text;
     }
 
     /**
@@ -83,9 +126,59 @@ public enum DateFormatter {
      * @return 当前时间格式化后的字符串
      */
     public String format(TemporalAccessor source) {
+        if (null != this.layout) {
+            char[] chars = new char[this.layout.length()];
+            if (this.layout.format(source, chars, 0))
+                return new String(chars);
+        }
         return this.formatter.format(source);
     }
 
+    /**
+     * 按当前格式将给定时间追加到 StringBuilder 中，固定布局的格式直接写入数字，不产生中间对象
+     *
+     * @param source  需要被格式化的时间
+     * @param builder 目标
+     * @return 传入的 builder
+     */
+    public StringBuilder formatTo(TemporalAccessor source, StringBuilder builder) {
+        if (null == this.layout || !this.layout.format(source, builder))
+            this.formatter.formatTo(source, builder);
+        return builder;
+    }
+
+    /**
+     * 按当前格式将给定时间写入字符数组，剩余空间不足时抛出 {@link ArrayIndexOutOfBoundsException}
+     *
+     * @param source 需要被格式化的时间
+     * @param buffer 目标
+     * @param offset 写入的起始位置
+     * @return 写入的字符数
+     */
+    public int formatTo(TemporalAccessor source, char[] buffer, int offset) {
+        if (null != this.layout && this.layout.format(source, buffer, offset))
+            return this.layout.length();
+        String result = this.formatter.format(source);
+        result.getChars(0, result.length(), buffer, offset);
+        return result.length();
+    }
+
+    /**
+     * 按当前格式将给定时间以 UTF-8 编码写入字节数组，剩余空间不足时抛出 {@link ArrayIndexOutOfBoundsException}
+     *
+     * @param source 需要被格式化的时间
+     * @param buffer 目标
+     * @param offset 写入的起始位置
+     * @return 写入的字节数
+     */
+    public int formatTo(TemporalAccessor source, byte[] buffer, int offset) {
+        if (null != this.layout && this.layout.format(source, buffer, offset))
+            return this.layout.byteLength();
+        byte[] result = this.formatter.format(source).getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(result, 0, buffer, offset, result.length);
+        return result.length;
+    }
+
     /**
      * 按当前格式格式化给定时间
      * 针对 Date 类型
@@ -94,7 +187,7 @@ public enum DateFormatter {
      * @return 当前时间格式化后的字符串
      */
     public String format(Date source) {
-        return this.format(source.toInstant().atZone(ZoneId.systemDefault()));
+        return this.format(DateTimeUtils.toLocalDateTime(source.getTime()));
     }
 
     /**
@@ -104,6 +197,9 @@ public enum DateFormatter {
      * @return LocalDateTime
      */
     public LocalDateTime parseToLocalDateTime(String source) {
+        long packed = parseFixed(source, true, true);
+        if (packed >= 0)
+            return LocalDateTime.of(FixedLayout.toLocalDate(packed), FixedLayout.toLocalTime(packed));
         return LocalDateTime.parse(source, this.formatter);
     }
 
@@ -114,6 +210,9 @@ public enum DateFormatter {
      * @return LocalDate
      */
     public LocalDate parseToLocalDate(String source) {
+        long packed = parseFixed(source, true, false);
+        if (packed >= 0)
+            return FixedLayout.toLocalDate(packed);
         return LocalDate.parse(source, this.formatter);
     }
 
@@ -124,6 +223,188 @@ public enum DateFormatter {
      * @return LocalTime
      */
     public LocalTime parseToLocalTime(String source) {
+        long packed = parseFixed(source, false, true);
+        if (packed >= 0)
+            return FixedLayout.toLocalTime(packed);
         return LocalTime.parse(source, this.formatter);
     }
+
+    /**
+     * 从 offset 开始按当前格式解析，并转换为给定时区偏移下的秒级时间戳，之后的字符不做检查
+     * 固定宽度的格式直接读取数字并计算，不创建中间对象；只含日期的格式按当天零点计算
+     *
+     * @param source     源字符
+     * @param offset     起始位置
+     * @param zoneOffset 时区偏移
+     * @return 秒级时间戳
+     */
+    public long parseToEpochSecond(CharSequence source, int offset, ZoneOffset zoneOffset) {
+        if (null != this.layout && this.layout.hasDate()) {
+            long packed = this.layout.parse(source, offset);
+            if (packed >= 0)
+                return FixedLayout.toLocalEpochSecond(packed) - zoneOffset.getTotalSeconds();
+        }
+        return parseAt(source, offset).toEpochSecond(zoneOffset);
+    }
+
+    /**
+     * 从 offset 开始按当前格式解析，并转换为给定时区偏移下的毫秒级时间戳
+     *
+     * @see #parseToEpochSecond(CharSequence, int, ZoneOffset)
+     */
+    public long parseToEpochMilli(CharSequence source, int offset, ZoneOffset zoneOffset) {
+        return parseToEpochSecond(source, offset, zoneOffset) * 1000;
+    }
+
+    /**
+     * 从 offset 开始按当前格式解析 UTF-8 字节，并转换为给定时区偏移下的秒级时间戳，之后的字节不做检查
+     *
+     * @see #parseToEpochSecond(CharSequence, int, ZoneOffset)
+     */
+    public long parseToEpochSecond(byte[] source, int offset, ZoneOffset zoneOffset) {
+        if (null != this.layout && this.layout.hasDate()) {
+            long packed = this.layout.parse(source, offset);
+            if (packed >= 0)
+                return FixedLayout.toLocalEpochSecond(packed) - zoneOffset.getTotalSeconds();
+        }
+        String text = new String(source, offset, source.length - offset, StandardCharsets.UTF_8);
+        return parseAt(text, 0).toEpochSecond(zoneOffset);
+    }
+
+    /**
+     * 从 offset 开始按当前格式解析 UTF-8 字节，并转换为给定时区偏移下的毫秒级时间戳
+     *
+     * @see #parseToEpochSecond(CharSequence, int, ZoneOffset)
+     */
+    public long parseToEpochMilli(byte[] source, int offset, ZoneOffset zoneOffset) {
+        return parseToEpochSecond(source, offset, zoneOffset) * 1000;
+    }
+
+    /**
+     * 从 offset 开始按当前格式解析，并转换为给定时区下的秒级时间戳，之后的字符不做检查
+     * 时区偏移通过缓存的偏移变化表查找，夏令时跳过的时间顺延、重叠的时间取较早的时刻
+     *
+     * @param source 源字符
+     * @param offset 起始位置
+     * @param zoneId 时区
+     * @return 秒级时间戳
+     */
+    public long parseToEpochSecond(CharSequence source, int offset, ZoneId zoneId) {
+        return ZoneOffsetTable.of(zoneId).toEpochSecond(parseToEpochSecond(source, offset, ZoneOffset.UTC));
+    }
+
+    /**
+     * 从 offset 开始按当前格式解析，并转换为给定时区下的毫秒级时间戳
+     *
+     * @see #parseToEpochSecond(CharSequence, int, ZoneId)
+     */
+    public long parseToEpochMilli(CharSequence source, int offset, ZoneId zoneId) {
+        return parseToEpochSecond(source, offset, zoneId) * 1000;
+    }
+
+    /**
+     * 从 offset 开始按当前格式解析 UTF-8 字节，并转换为给定时区下的秒级时间戳
+     *
+     * @see #parseToEpochSecond(CharSequence, int, ZoneId)
+     */
+    public long parseToEpochSecond(byte[] source, int offset, ZoneId zoneId) {
+        return ZoneOffsetTable.of(zoneId).toEpochSecond(parseToEpochSecond(source, offset, ZoneOffset.UTC));
+    }
+
+    /**
+     * 从 offset 开始按当前格式解析 UTF-8 字节，并转换为给定时区下的毫秒级时间戳
+     *
+     * @see #parseToEpochSecond(CharSequence, int, ZoneId)
+     */
+    public long parseToEpochMilli(byte[] source, int offset, ZoneId zoneId) {
+        return parseToEpochSecond(source, offset, zoneId) * 1000;
+    }
+
+    /**
+     * 整个字符串恰好符合固定布局时直接解析
+     *
+     * @return 打包后的字段值，需要回退到 DateTimeFormatter 时返回 -1
+     */
+    private long parseFixed(String source, boolean date, boolean time) {
+        if (null == this.layout || source.length() != this.layout.length()
+                || (date && !this.layout.hasDate()) || (time && !this.layout.hasTime()))
+            return -1;
+        return this.layout.parse(source, 0);
+    }
+
+    /**
+     * 通过 DateTimeFormatter 从 offset 开始解析，只含日期时按当天零点计算
+     */
+    private LocalDateTime parseAt(CharSequence source, int offset) {
+        TemporalAccessor parsed = this.formatter.parse(source, new ParsePosition(offset));
+        LocalTime time = parsed.query(TemporalQueries.localTime());
+        return LocalDateTime.of(LocalDate.from(parsed), null == time ? LocalTime.MIDNIGHT : time);
+    }
+
+    /**
+     * 按格式中的字母判断格式化结果的最小时间单位，引号内的字面量不计入，不含时间字段时按天计算
+     */
+    private static ChronoUnit precisionOf(String pattern) {
+        ChronoUnit precision = ChronoUnit.DAYS;
+        boolean quoted = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if ('\'' == c) {
+                quoted = !quoted;
+                continue;
+            }
+            if (quoted)
+                continue;
+            ChronoUnit unit;
+            switch (c) {
+                case 'S':
+                case 'n':
+                case 'N':
+                case 'A':
+                    unit = ChronoUnit.MILLIS;
+                    break;
+                case 's':
+                    unit = ChronoUnit.SECONDS;
+                    break;
+                case 'm':
+                    unit = ChronoUnit.MINUTES;
+                    break;
+                case 'H':
+                case 'h':
+                case 'k':
+                case 'K':
+                    unit = ChronoUnit.HOURS;
+                    break;
+                case 'a':
+                    unit = ChronoUnit.HALF_DAYS;
+                    break;
+                default:
+                    continue;
+            }
+            if (unit.compareTo(precision) < 0)
+                precision = unit;
+        }
+        return precision;
+    }
+
+    /**
+     * 当前时间的格式化结果及其有效区间 [from, until)，均为毫秒时间戳
+     */
+    private static final class CachedNow {
+
+        private final String text;
+
+        private final ZoneId zone;
+
+        private final long from;
+
+        private final long until;
+
+        private CachedNow(String text, ZoneId zone, long from, long until) {
+            this.text = text;
+            this.zone = zone;
+            this.from = from;
+            this.until = until;
+        }
+    }
 }
@@ -0,0 +1,214 @@
+package top.felixu.common.date;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * 连续日期区间(含 start 和 end 在内)，内部只保存起止日期的 epoch-day
+ * <p>
+ * 作为不可修改的 {@link List} 使用，但不会预先创建每一天的对象：
+ * <ul>
+ * <li>size、get、contains、indexOf 均为 O(1)</li>
+ * <li>{@link #forEachEpochDay(LongConsumer)}、{@link #epochDays()} 以基本类型遍历，不创建 LocalDate</li>
+ * <li>{@link #stream()} 惰性生成 LocalDate，{@link #parallelStream()} 可按下标均匀拆分</li>
+ * <li>{@link #format(DateFormatter)} 返回按需格式化的视图</li>
+ * </ul>
+ * </p>
+ *
+ * @author felixu
+ * @since 2019.12.20
+ */
+public final class DateRange extends AbstractList<LocalDate> implements RandomAccess {
+
+    private final long startEpochDay;
+
+    private final long endEpochDay;
+
+    private DateRange(long startEpochDay, long endEpochDay) {
+        this.startEpochDay = startEpochDay;
+        this.endEpochDay = endEpochDay;
+    }
+
+    /**
+     * 创建日期区间，start 晚于 end 时为空区间
+     *
+     * @param start 开始日期
+     * @param end   结束日期
+     * @return 日期区间
+     */
+    public static DateRange of(LocalDate start, LocalDate end) {
+        return new DateRange(start.toEpochDay(), end.toEpochDay());
+    }
+
+    public LocalDate getStart() {
+        return LocalDate.ofEpochDay(startEpochDay);
+    }
+
+    public LocalDate getEnd() {
+        return LocalDate.ofEpochDay(endEpochDay);
+    }
+
+    @Override
+    public int size() {
+        long size = endEpochDay - startEpochDay + 1;
+        return size <= 0 ? 0 : (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public LocalDate get(int index) {
+        if (index < 0 || index >= size())
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        return LocalDate.ofEpochDay(startEpochDay + index);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof LocalDate))
+            return -1;
+        long epochDay = ((LocalDate) o).toEpochDay();
+        return epochDay < startEpochDay || epochDay > endEpochDay ? -1 : (int) (epochDay - startEpochDay);
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    /**
+     * 以 epoch-day 遍历区间内的每一天，不创建 LocalDate
+     *
+     * @param action 处理每一天的 epoch-day
+     */
+    public void forEachEpochDay(LongConsumer action) {
+        for (long day = startEpochDay; day <= endEpochDay; day++)
+            action.accept(day);
+    }
+
+    /**
+     * 区间内每一天的 epoch-day
+     *
+     * @return 有序的 LongStream
+     */
+    public LongStream epochDays() {
+        return startEpochDay > endEpochDay ? LongStream.empty() : LongStream.rangeClosed(startEpochDay, endEpochDay);
+    }
+
+    @Override
+    public void forEach(Consumer<? super LocalDate> action) {
+        for (long day = startEpochDay; day <= endEpochDay; day++)
+            action.accept(LocalDate.ofEpochDay(day));
+    }
+
+    /**
+     * 按给定格式格式化的视图，每次访问元素时才格式化
+     *
+     * @param formatter 格式
+     * @return 不可修改的字符串列表
+     */
+    public List<String> format(DateFormatter formatter) {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return formatter.format(DateRange.this.get(index));
+            }
+
+            @Override
+            public int size() {
+                return DateRange.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Spliterator<LocalDate> spliterator() {
+        return new DaySpliterator(startEpochDay, startEpochDay + size());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof DateRange) {
+            DateRange other = (DateRange) o;
+            return size() == 0 ? other.size() == 0
+                    : startEpochDay == other.startEpochDay && endEpochDay == other.endEpochDay;
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return size() == 0 ? "[]" : "[" + getStart() + ".." + getEnd() + "]";
+    }
+
+    /**
+     * 按 epoch-day 区间 [from, to) 均匀拆分的 Spliterator
+     */
+    private static final class DaySpliterator implements Spliterator<LocalDate> {
+
+        private long from;
+
+        private final long to;
+
+        private DaySpliterator(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super LocalDate> action) {
+            if (from >= to)
+                return false;
+            action.accept(LocalDate.ofEpochDay(from++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super LocalDate> action) {
+            long end = to;
+            for (long day = from; day < end; day++)
+                action.accept(LocalDate.ofEpochDay(day));
+            from = end;
+        }
+
+        @Override
+        public Spliterator<LocalDate> trySplit() {
+            long middle = from + (to - from) / 2;
+            if (middle <= from)
+                return null;
+            Spliterator<LocalDate> prefix = new DaySpliterator(from, middle);
+            from = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | SORTED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+
+        @Override
+        public Comparator<? super LocalDate> getComparator() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package top.felixu.common.date;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.MonthDay;
+import java.time.YearMonth;
+import java.time.chrono.IsoChronology;
+
+/**
+ * 按输入的形状(长度及分隔符位置)识别常用时间格式，并直接按固定布局读取数字的解析器
+ * <p>
+ * 支持的格式：
+ * <ul>
+ * <li>LocalDateTime：yyyy-MM-dd HH:mm:ss、yyyy-MM-dd HH:mm 及对应的 ISO 格式(以 T 分隔，可带秒的小数部分)</li>
+ * <li>LocalDate：yyyy-MM-dd</li>
+ * <li>LocalTime：HH:mm:ss、HH:mm，可带秒的小数部分</li>
+ * <li>YearMonth：yyyy-MM、yyyy年MM月</li>
+ * <li>MonthDay：--MM-dd、MM月dd日</li>
+ * </ul>
+ * 无法识别的形状或超出范围的值返回 null 而不抛出异常，由调用方决定是否回退到 {@link java.time.format.DateTimeFormatter}。
+ * </p>
+ *
+ * @author felixu
+ * @since 2019.12.20
+ */
+public class DateTimeParsers {
+
+    private DateTimeParsers() {
+    }
+
+    /**
+     * 解析 LocalDateTime
+     *
+     * @param text 输入
+     * @return 解析结果，无法识别时返回 null
+     */
+    public static LocalDateTime parseLocalDateTime(CharSequence text) {
+        int length = text.length();
+        if (length < 16 || !isDate(text, 0))
+            return null;
+        char separator = text.charAt(10);
+        if (separator != ' ' && separator != 'T')
+            return null;
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        if (!isValidDate(year, month, day))
+            return null;
+        LocalTime time = parseTime(text, 11, length);
+        return null == time ? null : LocalDateTime.of(LocalDate.of(year, month, day), time);
+    }
+
+    /**
+     * 解析 LocalDate
+     *
+     * @param text 输入
+     * @return 解析结果，无法识别时返回 null
+     */
+    public static LocalDate parseLocalDate(CharSequence text) {
+        if (text.length() != 10 || !isDate(text, 0))
+            return null;
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        return isValidDate(year, month, day) ? LocalDate.of(year, month, day) : null;
+    }
+
+    /**
+     * 解析 LocalTime
+     *
+     * @param text 输入
+     * @return 解析结果，无法识别时返回 null
+     */
+    public static LocalTime parseLocalTime(CharSequence text) {
+        return parseTime(text, 0, text.length());
+    }
+
+    /**
+     * 解析 YearMonth
+     *
+     * @param text 输入
+     * @return 解析结果，无法识别时返回 null
+     */
+    public static YearMonth parseYearMonth(CharSequence text) {
+        int length = text.length();
+        boolean iso = length == 7 && text.charAt(4) == '-';
+        boolean chinese = length == 8 && text.charAt(4) == '年' && text.charAt(7) == '月';
+        if (!iso && !chinese)
+            return null;
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        return year < 0 || month < 1 || month > 12 ? null : YearMonth.of(year, month);
+    }
+
+    /**
+     * 解析 MonthDay
+     *
+     * @param text 输入
+     * @return 解析结果，无法识别时返回 null
+     */
+    public static MonthDay parseMonthDay(CharSequence text) {
+        int month;
+        int day;
+        if (text.length() == 7 && text.charAt(0) == '-' && text.charAt(1) == '-' && text.charAt(4) == '-') {
+            month = digits(text, 2, 2);
+            day = digits(text, 5, 2);
+        } else if (text.length() == 6 && text.charAt(2) == '月' && text.charAt(5) == '日') {
+            month = digits(text, 0, 2);
+            day = digits(text, 3, 2);
+        } else {
+            return null;
+        }
+        // 2 月按闰年计算，与 MonthDay 本身的约束一致
+        return month < 1 || month > 12 || day < 1 || day > Month.of(month).maxLength() ? null : MonthDay.of(month, day);
+    }
+
+    /**
+     * 解析 [from, to) 区间内的 HH:mm、HH:mm:ss 或 HH:mm:ss.SSSSSSSSS
+     */
+    private static LocalTime parseTime(CharSequence text, int from, int to) {
+        int length = to - from;
+        if (length < 5 || text.charAt(from + 2) != ':')
+            return null;
+        int hour = digits(text, from, 2);
+        int minute = digits(text, from + 3, 2);
+        int second = 0;
+        int nano = 0;
+        if (length > 5) {
+            if (length < 8 || text.charAt(from + 5) != ':')
+                return null;
+            second = digits(text, from + 6, 2);
+            if (length > 8) {
+                int fraction = length - 9;
+                if (text.charAt(from + 8) != '.' || fraction < 1 || fraction > 9)
+                    return null;
+                nano = digits(text, from + 9, fraction);
+                if (nano < 0)
+                    return null;
+                for (int i = fraction; i < 9; i++)
+                    nano *= 10;
+            }
+        }
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59)
+            return null;
+        return LocalTime.of(hour, minute, second, nano);
+    }
+
+    /**
+     * offset 处是否为 yyyy-MM-dd 的形状
+     */
+    private static boolean isDate(CharSequence text, int offset) {
+        return text.charAt(offset + 4) == '-' && text.charAt(offset + 7) == '-';
+    }
+
+    private static boolean isValidDate(int year, int month, int day) {
+        if (year < 0 || month < 1 || month > 12 || day < 1)
+            return false;
+        return day <= 28 || day <= Month.of(month).length(IsoChronology.INSTANCE.isLeapYear(year));
+    }
+
+    /**
+     * 读取 offset 开始的 count 位十进制数字
+     *
+     * @return 数值，存在非数字字符时返回 -1
+     */
+    static int digits(CharSequence text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9)
+                return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -2,16 +2,17 @@ package top.felixu.common.date;
 
 
 import java.time.DayOfWeek;
-import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAccessor;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * 时间相关处理
@@ -20,8 +21,8 @@ import java.util.List;
  * <ul>
  * <li>提供包括 Java8 时间与 Date 和 Long 类型之间的相互转换</li>
  * <li>提供格式化方法</li>
- * <li>提供判断是否为周末</li>
- * <li>提供查询给定时间段中的每一天的列表</li>
+ * <li>提供判断是否为周末，以及按工作日历判断工作日、查询工作日</li>
+ * <li>提供查询给定时间段中的每一天的列表及日期区间</li>
  * </ul>
  * </p>
  *
@@ -30,18 +31,68 @@ import java.util.List;
  */
 public class DateTimeUtils {
 
+    /**
+     * 各转换方法使用的时区，默认为类加载时的系统时区
+     * 之后通过 TimeZone.setDefault 修改系统时区不会影响这里，需要时请调用 {@link #setZone(ZoneId)}
+     */
+    private static volatile ZoneId zone = ZoneId.systemDefault();
+
+    /**
+     * 工作日相关方法使用的日历，默认只以周末为休息日
+     */
+    private static volatile BusinessCalendar businessCalendar = BusinessCalendar.weekends();
+
+    /**
+     * 设置各转换方法使用的时区，代替隐式的系统时区
+     * 同时影响 {@link DateFormatter#now()}、{@link DateFormatter#cachedNow()} 与 {@link DateFormatter#format(Date)}
+     *
+     * @param zoneId 时区
+     */
+    public static void setZone(ZoneId zoneId) {
+        zone = Objects.requireNonNull(zoneId);
+    }
+
+    /**
+     * 获取各转换方法使用的时区
+     *
+     * @return 时区
+     */
+    public static ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * 设置工作日相关方法使用的日历，如通过 {@link BusinessCalendar#load(java.nio.file.Path)} 加载的节假日日历
+     *
+     * @param calendar 工作日历
+     */
+    public static void setBusinessCalendar(BusinessCalendar calendar) {
+        businessCalendar = Objects.requireNonNull(calendar);
+    }
+
+    /**
+     * 获取工作日相关方法使用的日历
+     *
+     * @return 工作日历
+     */
+    public static BusinessCalendar getBusinessCalendar() {
+        return businessCalendar;
+    }
+
     /**
      * 将 Date 类型转为 LocalDateTime 类型
+     * 按 {@link #getZone()} 的时区转换，不随之后的 TimeZone.setDefault 变化
      *
      * @param date 需要被转换的日期
      * @return LocalDateTime
      */
     public static LocalDateTime dateToLocalDateTime(Date date) {
-        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+        return toLocalDateTime(date.getTime());
     }
 
     /**
      * 将 Date 类型转为 LocalDate 类型
+     * 按 {@link #getZone()} 的时区转换，不随之后的 TimeZone.setDefault 变化
      *
      * @param date 需要被转换的日期
      * @return LocalDate
@@ -52,6 +103,7 @@ public class DateTimeUtils {
 
     /**
      * 将 Date 类型转为 LocalTime 类型
+     * 按 {@link #getZone()} 的时区转换，不随之后的 TimeZone.setDefault 变化
      *
      * @param date 需要被转换的日期
      * @return LocalTime
@@ -62,53 +114,154 @@ public class DateTimeUtils {
 
     /**
      * 将 LocalDateTime 类型转为 Date 类型
+     * 按 {@link #getZone()} 的时区转换，不随之后的 TimeZone.setDefault 变化
      *
      * @param date 需要被转换的日期
      * @return Date
      */
     public static Date localDateTimeToDate(LocalDateTime date) {
-        return Date.from(date.atZone(ZoneId.systemDefault()).toInstant());
+        return new Date(toEpochMilli(date));
     }
 
     /**
      * 将 LocalDate 类型转为 Date 类型
+     * 按 {@link #getZone()} 的时区转换，不随之后的 TimeZone.setDefault 变化
      *
      * @param date 需要被转换的日期
      * @return Date
      */
     public static Date localDateToDate(LocalDate date) {
-        return Date.from(date.atStartOfDay().atZone(ZoneId.systemDefault()).toInstant());
+        return new Date(toEpochMilli(date));
     }
 
     /**
      * 将 LocalTime 类型转为 Date 类型
+     * 按 {@link #getZone()} 的时区转换，不随之后的 TimeZone.setDefault 变化
      *
      * @param date LocalDate
      * @param time LocalTime
      * @return Date
      */
     public static Date localTimeToDate(LocalDate date, LocalTime time) {
-        return Date.from(LocalDateTime.of(date, time).atZone(ZoneId.systemDefault()).toInstant());
+        return new Date(toEpochMilli(LocalDateTime.of(date, time)));
     }
 
     /**
      * 将时间戳转成 LocalDateTime
+     * 按 {@link #getZone()} 的时区转换，不随之后的 TimeZone.setDefault 变化
      *
      * @param time 时间戳
      * @return LocalDateTime
      */
     public static LocalDateTime longToLocalDateTime(Long time) {
-        return LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault());
+        return toLocalDateTime(time);
     }
 
     /**
      * 将时间戳转成 LocalDate
+     * 按 {@link #getZone()} 的时区转换，不随之后的 TimeZone.setDefault 变化
      *
      * @param time 时间戳
      * @return LocalDate
      */
     public static LocalDate longToLocalDate(Long time) {
-        return LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault()).toLocalDate();
+        return toLocalDate(time);
+    }
+
+    /**
+     * 将毫秒时间戳转成 LocalDateTime
+     * 按 {@link #getZone()} 的时区转换，不随之后的 TimeZone.setDefault 变化
+     *
+     * @param epochMilli 毫秒时间戳
+     * @return LocalDateTime
+     */
+    public static LocalDateTime toLocalDateTime(long epochMilli) {
+        return toLocalDateTime(epochMilli, zone);
+    }
+
+    /**
+     * 将毫秒时间戳按指定时区转成 LocalDateTime
+     * 时区的偏移通过预先计算的偏移变化表查找，只需一次二分查找，夏令时切换前后同样准确
+     *
+     * @param epochMilli 毫秒时间戳
+     * @param zoneId     时区
+     * @return LocalDateTime
+     */
+    public static LocalDateTime toLocalDateTime(long epochMilli, ZoneId zoneId) {
+        long epochSecond = Math.floorDiv(epochMilli, 1000);
+        int nanos = (int) Math.floorMod(epochMilli, 1000) * 1000_000;
+        int offset = ZoneOffsetTable.of(zoneId).offsetOfEpochSecond(epochSecond);
+        return LocalDateTime.ofEpochSecond(epochSecond, nanos, ZoneOffset.ofTotalSeconds(offset));
+    }
+
+    /**
+     * 将毫秒时间戳转成 LocalDate
+     * 按 {@link #getZone()} 的时区转换，不随之后的 TimeZone.setDefault 变化
+     *
+     * @param epochMilli 毫秒时间戳
+     * @return LocalDate
+     */
+    public static LocalDate toLocalDate(long epochMilli) {
+        return toLocalDate(epochMilli, zone);
+    }
+
+    /**
+     * 将毫秒时间戳按指定时区转成 LocalDate
+     *
+     * @param epochMilli 毫秒时间戳
+     * @param zoneId     时区
+     * @return LocalDate
+     */
+    public static LocalDate toLocalDate(long epochMilli, ZoneId zoneId) {
+        long epochSecond = Math.floorDiv(epochMilli, 1000);
+        long localSecond = ZoneOffsetTable.of(zoneId).toLocalEpochSecond(epochSecond);
+        return LocalDate.ofEpochDay(Math.floorDiv(localSecond, 86400));
+    }
+
+    /**
+     * 将 LocalDateTime 转为毫秒时间戳
+     * 按 {@link #getZone()} 的时区转换，不随之后的 TimeZone.setDefault 变化
+     *
+     * @param source 给定时间
+     * @return 毫秒值
+     */
+    public static long toEpochMilli(LocalDateTime source) {
+        return toEpochMilli(source, zone);
+    }
+
+    /**
+     * 将 LocalDateTime 按指定时区转为毫秒时间戳
+     * 夏令时跳过的时间顺延，重叠的时间取较早的时刻，与 {@link java.time.ZonedDateTime#of(LocalDateTime, ZoneId)} 一致
+     *
+     * @param source 给定时间
+     * @param zoneId 时区
+     * @return 毫秒值
+     */
+    public static long toEpochMilli(LocalDateTime source, ZoneId zoneId) {
+        long localSecond = source.toLocalDate().toEpochDay() * 86400 + source.toLocalTime().toSecondOfDay();
+        return ZoneOffsetTable.of(zoneId).toEpochSecond(localSecond) * 1000 + source.getNano() / 1000_000;
+    }
+
+    /**
+     * 将 LocalDate 当天零点转为毫秒时间戳
+     * 按 {@link #getZone()} 的时区转换，不随之后的 TimeZone.setDefault 变化
+     *
+     * @param source 给定日期
+     * @return 毫秒值
+     */
+    public static long toEpochMilli(LocalDate source) {
+        return toEpochMilli(source, zone);
+    }
+
+    /**
+     * 将 LocalDate 当天零点按指定时区转为毫秒时间戳，零点被夏令时跳过时顺延
+     *
+     * @param source 给定日期
+     * @param zoneId 时区
+     * @return 毫秒值
+     */
+    public static long toEpochMilli(LocalDate source, ZoneId zoneId) {
+        return ZoneOffsetTable.of(zoneId).toEpochSecond(source.toEpochDay() * 86400) * 1000;
     }
 
     /**
@@ -126,6 +279,7 @@ public class DateTimeUtils {
 
     /**
      * 按指定格式将时间格式化为字符串
+     * 按 {@link #getZone()} 的时区格式化，不随之后的 TimeZone.setDefault 变化
      * 常用格式请使用{@link DateFormatter}
      *
      * @param source 时间
@@ -134,17 +288,18 @@ public class DateTimeUtils {
      * @see DateFormatter
      */
     public static String format(Date source, String pattern) {
-        return format(source.toInstant().atZone(ZoneId.systemDefault()), pattern);
+        return format(source.toInstant().atZone(zone), pattern);
     }
 
     /**
      * 将 LocalDateTime 转为 Long 类型的时间戳
+     * 按 {@link #getZone()} 的时区转换，不随之后的 TimeZone.setDefault 变化
      *
      * @param source 给定时间
      * @return 毫秒值
      */
     public static Long toTimestamp(LocalDateTime source) {
-        return source.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return toEpochMilli(source);
     }
 
     /**
@@ -158,6 +313,50 @@ public class DateTimeUtils {
                 || source.getDayOfWeek().equals(DayOfWeek.SUNDAY);
     }
 
+    /**
+     * 按当前工作日历判断给定时间是否为工作日
+     *
+     * @param source 给定时间
+     * @return 是否工作日
+     * @see #setBusinessCalendar(BusinessCalendar)
+     */
+    public static boolean isWorkday(LocalDate source) {
+        return businessCalendar.isWorkday(source);
+    }
+
+    /**
+     * 按当前工作日历统计给定时间段中的工作日天数(含 start 和 end 在内)
+     *
+     * @param start 开始时间
+     * @param end 结束时间
+     * @return 工作日天数
+     */
+    public static long countWorkdays(LocalDate start, LocalDate end) {
+        return businessCalendar.countWorkdays(start, end);
+    }
+
+    /**
+     * 按当前工作日历获取给定时间之后(amount 为负时之前)的第 amount 个工作日
+     *
+     * @param source 给定时间
+     * @param amount 工作日天数
+     * @return 目标日期
+     */
+    public static LocalDate plusWorkdays(LocalDate source, int amount) {
+        return businessCalendar.addWorkdays(source, amount);
+    }
+
+    /**
+     * 按当前工作日历获取给定时间段中的每一个工作日(含 start 和 end 在内)
+     *
+     * @param start 开始时间
+     * @param end 结束时间
+     * @return 给定时间段中的工作日列表
+     */
+    public static List<LocalDate> getWorkdaysOfSpecified(LocalDate start, LocalDate end) {
+        return businessCalendar.workdays(DateRange.of(start, end));
+    }
+
     /**
      * 获取给定时间段中的每一天(含 start 和 end 在内)
      *
@@ -179,12 +378,20 @@ public class DateTimeUtils {
      * @return 给定时间段中的时间列表
      */
     public static List<LocalDate> getEveryDayOfSpecified(LocalDate start, LocalDate end) {
-        List<LocalDate> result = new ArrayList<>();
-        while (!start.isAfter(end)) {
-            result.add(start);
-            start = start.plusDays(1);
-        }
-        return result;
+        return new ArrayList<>(DateRange.of(start, end));
+    }
+
+    /**
+     * 获取给定时间段(含 start 和 end 在内)的日期区间，不会预先创建每一天的对象
+     * 只需遍历、判断包含或按需格式化时，请优先使用本方法代替 getEveryDayOfSpecified
+     *
+     * @param start 开始时间
+     * @param end 结束时间
+     * @return 日期区间
+     * @see DateRange
+     */
+    public static DateRange getDateRange(LocalDate start, LocalDate end) {
+        return DateRange.of(start, end);
     }
 
     /**
@@ -210,11 +417,6 @@ public class DateTimeUtils {
      * @return 给定时间段中的时间列表
      */
     public static List<String> getEveryDayOfSpecified(LocalDate start, LocalDate end, DateFormatter formatter) {
-        List<String> result = new ArrayList<>();
-        while (!start.isAfter(end)) {
-            result.add(start.format(formatter.getFormatter()));
-            start = start.plusDays(1);
-        }
-        return result;
+        return new ArrayList<>(DateRange.of(start, end).format(formatter));
     }
 }
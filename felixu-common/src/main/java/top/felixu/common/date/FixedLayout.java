@@ -0,0 +1,466 @@
+package top.felixu.common.date;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.chrono.IsoChronology;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 固定布局的时间格式
+ * <p>
+ * 仅由 yyyy、MM、dd、HH、mm、ss 及不带引号的字面量组成的格式，每个字段的位置与宽度都是固定的：
+ * 预先生成包含字面量的字符/UTF-8 字节模板，格式化时复制模板后直接在对应位置写入数字，不经过 {@link java.time.format.DateTimeFormatter}。
+ * 解析时同样按固定位置校验字面量并直接读取数字，结果打包为一个 long，不创建中间对象。
+ * 其他格式(如需要区域设置的周数 w)无法编译，由调用方回退到 DateTimeFormatter。
+ * </p>
+ *
+ * @author felixu
+ * @since 2019.12.20
+ */
+final class FixedLayout {
+
+    private static final int YEAR = 0;
+    private static final int MONTH = 1;
+    private static final int DAY = 2;
+    private static final int HOUR = 3;
+    private static final int MINUTE = 4;
+    private static final int SECOND = 5;
+
+    private final char[] chars;
+
+    private final byte[] bytes;
+
+    /**
+     * 每个字段的类型，及其在字符模板、字节模板中的位置
+     */
+    private final int[] fields;
+
+    private final int[] charOffsets;
+
+    private final int[] byteOffsets;
+
+    /**
+     * 字面量在字符模板、字节模板中的位置
+     */
+    private final int[] literalChars;
+
+    private final int[] literalBytes;
+
+    /**
+     * 包含的字段，按字段类型的位掩码
+     */
+    private final int present;
+
+    private final boolean needsDate;
+
+    private final boolean needsTime;
+
+    private FixedLayout(StringBuilder template, List<int[]> segments) {
+        this.chars = template.toString().toCharArray();
+        this.bytes = template.toString().getBytes(StandardCharsets.UTF_8);
+        this.fields = new int[segments.size()];
+        this.charOffsets = new int[segments.size()];
+        this.byteOffsets = new int[segments.size()];
+        boolean date = false;
+        boolean time = false;
+        int mask = 0;
+        boolean[] digitChars = new boolean[chars.length];
+        boolean[] digitBytes = new boolean[bytes.length];
+        for (int i = 0; i < segments.size(); i++) {
+            int[] segment = segments.get(i);
+            fields[i] = segment[0];
+            charOffsets[i] = segment[1];
+            // 字段之前的字面量可能是多字节字符
+            byteOffsets[i] = template.substring(0, segment[1]).getBytes(StandardCharsets.UTF_8).length;
+            Arrays.fill(digitChars, charOffsets[i], charOffsets[i] + width(fields[i]), true);
+            Arrays.fill(digitBytes, byteOffsets[i], byteOffsets[i] + width(fields[i]), true);
+            date |= segment[0] <= DAY;
+            time |= segment[0] >= HOUR;
+            mask |= 1 << segment[0];
+        }
+        this.literalChars = positions(digitChars);
+        this.literalBytes = positions(digitBytes);
+        this.present = mask;
+        this.needsDate = date;
+        this.needsTime = time;
+    }
+
+    private static int[] positions(boolean[] digits) {
+        int count = 0;
+        for (boolean digit : digits)
+            count += digit ? 0 : 1;
+        int[] result = new int[count];
+        for (int i = 0, j = 0; i < digits.length; i++) {
+            if (!digits[i])
+                result[j++] = i;
+        }
+        return result;
+    }
+
+    /**
+     * 编译格式
+     *
+     * @param pattern DateTimeFormatter 格式
+     * @return 无法以固定布局表示时返回 null
+     */
+    static FixedLayout compile(String pattern) {
+        StringBuilder template = new StringBuilder(pattern.length());
+        List<int[]> segments = new ArrayList<>();
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '\'' || c == '[' || c == ']' || c == '#' || c == '{' || c == '}')
+                return null;
+            // 与 DateTimeFormatterBuilder 一致，只有 ASCII 字母是格式字母，年、月、日等汉字均为字面量
+            if (!(c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z')) {
+                template.append(c);
+                i++;
+                continue;
+            }
+            int end = i;
+            while (end < pattern.length() && pattern.charAt(end) == c)
+                end++;
+            int field = field(c, end - i);
+            if (field < 0)
+                return null;
+            segments.add(new int[]{field, template.length()});
+            for (int j = 0; j < width(field); j++)
+                template.append('0');
+            i = end;
+        }
+        return new FixedLayout(template, segments);
+    }
+
+    private static int field(char letter, int count) {
+        switch (letter) {
+            case 'y':
+                return 4 == count ? YEAR : -1;
+            case 'M':
+                return 2 == count ? MONTH : -1;
+            case 'd':
+                return 2 == count ? DAY : -1;
+            case 'H':
+                return 2 == count ? HOUR : -1;
+            case 'm':
+                return 2 == count ? MINUTE : -1;
+            case 's':
+                return 2 == count ? SECOND : -1;
+            default:
+                return -1;
+        }
+    }
+
+    private static int width(int field) {
+        return YEAR == field ? 4 : 2;
+    }
+
+    /**
+     * 格式化后的字符数
+     */
+    int length() {
+        return chars.length;
+    }
+
+    /**
+     * 格式化后的 UTF-8 字节数
+     */
+    int byteLength() {
+        return bytes.length;
+    }
+
+    /**
+     * 写入字符数组
+     *
+     * @return 是否支持该时间，不支持时不会写入
+     */
+    boolean format(TemporalAccessor source, char[] buffer, int offset) {
+        LocalDate date = dateOf(source);
+        LocalTime time = timeOf(source);
+        if (!supports(date, time))
+            return false;
+        System.arraycopy(chars, 0, buffer, offset, chars.length);
+        for (int i = 0; i < fields.length; i++) {
+            int value = value(fields[i], date, time);
+            int position = offset + charOffsets[i];
+            if (YEAR == fields[i]) {
+                buffer[position++] = (char) ('0' + value / 1000);
+                buffer[position++] = (char) ('0' + value / 100 % 10);
+            }
+            buffer[position++] = (char) ('0' + value / 10 % 10);
+            buffer[position] = (char) ('0' + value % 10);
+        }
+        return true;
+    }
+
+    /**
+     * 以 UTF-8 编码写入字节数组
+     *
+     * @return 是否支持该时间，不支持时不会写入
+     */
+    boolean format(TemporalAccessor source, byte[] buffer, int offset) {
+        LocalDate date = dateOf(source);
+        LocalTime time = timeOf(source);
+        if (!supports(date, time))
+            return false;
+        System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+        for (int i = 0; i < fields.length; i++) {
+            int value = value(fields[i], date, time);
+            int position = offset + byteOffsets[i];
+            if (YEAR == fields[i]) {
+                buffer[position++] = (byte) ('0' + value / 1000);
+                buffer[position++] = (byte) ('0' + value / 100 % 10);
+            }
+            buffer[position++] = (byte) ('0' + value / 10 % 10);
+            buffer[position] = (byte) ('0' + value % 10);
+        }
+        return true;
+    }
+
+    /**
+     * 追加到 StringBuilder
+     *
+     * @return 是否支持该时间，不支持时不会写入
+     */
+    boolean format(TemporalAccessor source, StringBuilder builder) {
+        LocalDate date = dateOf(source);
+        LocalTime time = timeOf(source);
+        if (!supports(date, time))
+            return false;
+        int offset = builder.length();
+        builder.append(chars);
+        for (int i = 0; i < fields.length; i++) {
+            int value = value(fields[i], date, time);
+            int position = offset + charOffsets[i];
+            if (YEAR == fields[i]) {
+                builder.setCharAt(position++, (char) ('0' + value / 1000));
+                builder.setCharAt(position++, (char) ('0' + value / 100 % 10));
+            }
+            builder.setCharAt(position++, (char) ('0' + value / 10 % 10));
+            builder.setCharAt(position, (char) ('0' + value % 10));
+        }
+        return true;
+    }
+
+    /**
+     * 所需的日期/时间部分齐全，且年份在 4 位数字可表示的公元年份范围内
+     */
+    private boolean supports(LocalDate date, LocalTime time) {
+        if (needsDate && (null == date || date.getYear() < 1 || date.getYear() > 9999))
+            return false;
+        return !needsTime || null != time;
+    }
+
+    private static int value(int field, LocalDate date, LocalTime time) {
+        switch (field) {
+            case YEAR:
+                return date.getYear();
+            case MONTH:
+                return date.getMonthValue();
+            case DAY:
+                return date.getDayOfMonth();
+            case HOUR:
+                return time.getHour();
+            case MINUTE:
+                return time.getMinute();
+            default:
+                return time.getSecond();
+        }
+    }
+
+    /**
+     * 是否包含年月日，可解析为 LocalDate
+     */
+    boolean hasDate() {
+        int date = 1 << YEAR | 1 << MONTH | 1 << DAY;
+        return (present & date) == date;
+    }
+
+    /**
+     * 是否包含时分，可解析为 LocalTime
+     */
+    boolean hasTime() {
+        int time = 1 << HOUR | 1 << MINUTE;
+        return (present & time) == time;
+    }
+
+    /**
+     * 从 offset 开始按布局解析，之后的字符不做检查
+     *
+     * @return 打包后的字段值，字面量不匹配、存在非数字字符或字段值超出范围时返回 -1
+     */
+    long parse(CharSequence text, int offset) {
+        if (offset < 0 || text.length() - offset < chars.length)
+            return -1;
+        for (int position : literalChars) {
+            if (text.charAt(offset + position) != chars[position])
+                return -1;
+        }
+        long packed = 0;
+        for (int i = 0; i < fields.length; i++) {
+            int value = DateTimeParsers.digits(text, offset + charOffsets[i], width(fields[i]));
+            if (value < 0)
+                return -1;
+            packed = set(packed, fields[i], value);
+        }
+        return validate(packed);
+    }
+
+    /**
+     * 从 offset 开始按 UTF-8 字节布局解析，之后的字节不做检查
+     *
+     * @return 打包后的字段值，字面量不匹配、存在非数字字节或字段值超出范围时返回 -1
+     */
+    long parse(byte[] text, int offset) {
+        if (offset < 0 || text.length - offset < bytes.length)
+            return -1;
+        for (int position : literalBytes) {
+            if (text[offset + position] != bytes[position])
+                return -1;
+        }
+        long packed = 0;
+        for (int i = 0; i < fields.length; i++) {
+            int value = 0;
+            for (int j = offset + byteOffsets[i], end = j + width(fields[i]); j < end; j++) {
+                int digit = text[j] - '0';
+                if (digit < 0 || digit > 9)
+                    return -1;
+                value = value * 10 + digit;
+            }
+            packed = set(packed, fields[i], value);
+        }
+        return validate(packed);
+    }
+
+    /**
+     * 每个字段占 16 位，年在最高位；缺失的月、日按 1 计算
+     */
+    private static long set(long packed, int field, int value) {
+        return packed | (long) value << shift(field);
+    }
+
+    private static int shift(int field) {
+        switch (field) {
+            case YEAR:
+                return 48;
+            case MONTH:
+                return 40;
+            case DAY:
+                return 32;
+            case HOUR:
+                return 16;
+            case MINUTE:
+                return 8;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * 只接受无需 ResolverStyle 调整的值，其余交给 DateTimeFormatter 按原有规则处理
+     */
+    private long validate(long packed) {
+        if ((present & 1 << MONTH) == 0)
+            packed |= 1L << shift(MONTH);
+        if ((present & 1 << DAY) == 0)
+            packed |= 1L << shift(DAY);
+        int year = year(packed);
+        int month = month(packed);
+        int day = day(packed);
+        if ((present & 1 << YEAR) != 0 && year < 1)
+            return -1;
+        if (month < 1 || month > 12 || day < 1)
+            return -1;
+        if (day > 28 && day > Month.of(month).length((present & 1 << YEAR) == 0 || IsoChronology.INSTANCE.isLeapYear(year)))
+            return -1;
+        if (hour(packed) > 23 || minute(packed) > 59 || second(packed) > 59)
+            return -1;
+        return packed;
+    }
+
+    static int year(long packed) {
+        return (int) (packed >>> 48);
+    }
+
+    static int month(long packed) {
+        return (int) (packed >>> 40 & 0xFF);
+    }
+
+    static int day(long packed) {
+        return (int) (packed >>> 32 & 0xFF);
+    }
+
+    static int hour(long packed) {
+        return (int) (packed >>> 16 & 0xFF);
+    }
+
+    static int minute(long packed) {
+        return (int) (packed >>> 8 & 0xFF);
+    }
+
+    static int second(long packed) {
+        return (int) (packed & 0xFF);
+    }
+
+    static LocalDate toLocalDate(long packed) {
+        return LocalDate.of(year(packed), month(packed), day(packed));
+    }
+
+    static LocalTime toLocalTime(long packed) {
+        return LocalTime.of(hour(packed), minute(packed), second(packed));
+    }
+
+    /**
+     * 打包值对应的本地时间距 1970-01-01T00:00:00 的秒数，与 {@link LocalDateTime#toEpochSecond} 的算法一致
+     */
+    static long toLocalEpochSecond(long packed) {
+        long year = year(packed);
+        long month = month(packed);
+        long total = 365 * year;
+        if (year >= 0)
+            total += (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        else
+            total -= year / -4 - year / -100 + year / -400;
+        total += (367 * month - 362) / 12;
+        total += day(packed) - 1;
+        if (month > 2) {
+            total--;
+            if (!IsoChronology.INSTANCE.isLeapYear(year))
+                total--;
+        }
+        // 0000-01-01 至 1970-01-01 的天数
+        long epochDay = total - 719528;
+        return epochDay * 86400 + hour(packed) * 3600 + minute(packed) * 60 + second(packed);
+    }
+
+    private static LocalDate dateOf(TemporalAccessor source) {
+        if (source instanceof LocalDateTime)
+            return ((LocalDateTime) source).toLocalDate();
+        if (source instanceof LocalDate)
+            return (LocalDate) source;
+        if (source instanceof ZonedDateTime)
+            return ((ZonedDateTime) source).toLocalDate();
+        if (source instanceof OffsetDateTime)
+            return ((OffsetDateTime) source).toLocalDate();
+        return null;
+    }
+
+    private static LocalTime timeOf(TemporalAccessor source) {
+        if (source instanceof LocalDateTime)
+            return ((LocalDateTime) source).toLocalTime();
+        if (source instanceof LocalTime)
+            return (LocalTime) source;
+        if (source instanceof ZonedDateTime)
+            return ((ZonedDateTime) source).toLocalTime();
+        if (source instanceof OffsetDateTime)
+            return ((OffsetDateTime) source).toLocalTime();
+        return null;
+    }
+}
@@ -0,0 +1,136 @@
+package top.felixu.common.date;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 单个时区预先计算好的偏移变化表
+ * <p>
+ * 将 1900 至 2100 年间的全部偏移变化(含夏令时规则推算出的变化)展开为有序数组，时间戳与本地时间之间的换算只需一次二分查找与加减法，
+ * 不再每次遍历 {@link ZoneRules}。本地时间落在夏令时跳过的区间或重叠的区间时，与 {@link java.time.ZonedDateTime#of(LocalDateTime, ZoneId)}
+ * 的规则一致：均按变化前的偏移计算，即跳过的时间顺延、重叠的时间取较早的时刻。超出范围的时间回退到 ZoneRules。
+ * </p>
+ *
+ * @author felixu
+ * @since 2019.12.20
+ */
+final class ZoneOffsetTable {
+
+    private static final long MIN_EPOCH_SECOND = LocalDateTime.of(1900, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+    private static final long MAX_EPOCH_SECOND = LocalDateTime.of(2100, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+    /**
+     * 本地时间与 UTC 的差值不会超过 18 小时，范围判断时留出该余量
+     */
+    private static final long MAX_OFFSET_SECONDS = 18 * 3600;
+
+    private static final Map<ZoneId, ZoneOffsetTable> TABLES = new ConcurrentHashMap<>();
+
+    private final ZoneId zone;
+
+    /**
+     * 偏移变化的时刻(UTC 秒)
+     */
+    private final long[] transitions;
+
+    /**
+     * offsets[i] 为第 i 次变化之前的偏移(秒)，最后一个元素为最后一次变化之后的偏移
+     */
+    private final int[] offsets;
+
+    /**
+     * 第 i 次变化前后的本地时间中较早/较晚的一个，两者之间即为跳过或重叠的本地时间
+     */
+    private final long[] localStarts;
+
+    private final long[] localEnds;
+
+    private ZoneOffsetTable(ZoneId zone) {
+        this.zone = zone;
+        ZoneRules rules = zone.getRules();
+        List<ZoneOffsetTransition> list = new ArrayList<>();
+        if (!rules.isFixedOffset()) {
+            ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochSecond(MIN_EPOCH_SECOND - MAX_OFFSET_SECONDS));
+            while (null != transition && transition.toEpochSecond() < MAX_EPOCH_SECOND + MAX_OFFSET_SECONDS) {
+                list.add(transition);
+                transition = rules.nextTransition(transition.getInstant());
+            }
+        }
+        int size = list.size();
+        this.transitions = new long[size];
+        this.offsets = new int[size + 1];
+        this.localStarts = new long[size];
+        this.localEnds = new long[size];
+        this.offsets[0] = rules.getOffset(Instant.ofEpochSecond(MIN_EPOCH_SECOND - MAX_OFFSET_SECONDS)).getTotalSeconds();
+        for (int i = 0; i < size; i++) {
+            ZoneOffsetTransition transition = list.get(i);
+            int before = transition.getOffsetBefore().getTotalSeconds();
+            int after = transition.getOffsetAfter().getTotalSeconds();
+            transitions[i] = transition.toEpochSecond();
+            offsets[i + 1] = after;
+            localStarts[i] = transitions[i] + Math.min(before, after);
+            localEnds[i] = transitions[i] + Math.max(before, after);
+        }
+    }
+
+    static ZoneOffsetTable of(ZoneId zone) {
+        return TABLES.computeIfAbsent(zone, ZoneOffsetTable::new);
+    }
+
+    /**
+     * 给定时刻的偏移
+     *
+     * @param epochSecond UTC 秒
+     * @return 偏移(秒)
+     */
+    int offsetOfEpochSecond(long epochSecond) {
+        if (epochSecond < MIN_EPOCH_SECOND || epochSecond >= MAX_EPOCH_SECOND)
+            return zone.getRules().getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+        int index = Arrays.binarySearch(transitions, epochSecond);
+        return offsets[index >= 0 ? index + 1 : -index - 1];
+    }
+
+    /**
+     * 给定本地时间应使用的偏移
+     *
+     * @param localEpochSecond 本地时间距 1970-01-01T00:00:00 的秒数
+     * @return 偏移(秒)
+     */
+    int offsetOfLocalEpochSecond(long localEpochSecond) {
+        if (localEpochSecond < MIN_EPOCH_SECOND || localEpochSecond >= MAX_EPOCH_SECOND) {
+            // 跳过的时间经 atZone 顺延后偏移为变化后的值，这里返回与换算结果一致的偏移
+            LocalDateTime local = LocalDateTime.ofEpochSecond(localEpochSecond, 0, ZoneOffset.UTC);
+            return (int) (localEpochSecond - local.atZone(zone).toEpochSecond());
+        }
+        int index = Arrays.binarySearch(localStarts, localEpochSecond);
+        index = index >= 0 ? index : -index - 2;
+        if (index < 0)
+            return offsets[0];
+        // 落在跳过或重叠的区间内时使用变化前的偏移
+        return localEpochSecond < localEnds[index] ? offsets[index] : offsets[index + 1];
+    }
+
+    /**
+     * 本地时间转为 UTC 秒
+     */
+    long toEpochSecond(long localEpochSecond) {
+        return localEpochSecond - offsetOfLocalEpochSecond(localEpochSecond);
+    }
+
+    /**
+     * UTC 秒转为本地时间的秒数
+     */
+    long toLocalEpochSecond(long epochSecond) {
+        return epochSecond + offsetOfEpochSecond(epochSecond);
+    }
+}
@@ -0,0 +1,36 @@
+package top.felixu.common.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * {@link BinaryJsonUtils} 支持的二进制数据格式
+ *
+ * @author felixu
+ * @since 2019.12.20
+ */
+public enum BinaryFormat {
+
+    /**
+     * Jackson 的 Smile 格式，默认开启属性名共享，重复出现的属性名只写入一次引用，适合对象列表
+     */
+    SMILE {
+        @Override
+        JsonFactory newFactory() {
+            return new SmileFactory();
+        }
+    },
+
+    /**
+     * RFC 7049 定义的 CBOR 格式，跨语言支持更好
+     */
+    CBOR {
+        @Override
+        JsonFactory newFactory() {
+            return new CBORFactory();
+        }
+    };
+
+    abstract JsonFactory newFactory();
+}
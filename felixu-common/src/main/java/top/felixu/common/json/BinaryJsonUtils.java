@@ -0,0 +1,171 @@
+package top.felixu.common.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 以二进制格式(Smile、CBOR)进行序列化与反序列化，适合服务间调用、Redis 缓存等无需可读性的场景
+ * <p>
+ * 每种格式、每种 Include 风格各有一个内置的 {@link ObjectMapper}，均通过 {@link JsonUtils#newObjectMapper(com.fasterxml.jackson.core.JsonFactory, Include)}
+ * 创建，与 {@link JsonUtils} 的配置完全一致，包括 Guava、Java8 时间、Jdk8 模块及自定义的时间反序列化器。
+ * </p>
+ *
+ * @author felixu
+ * @since 2019.12.20
+ */
+public class BinaryJsonUtils {
+
+    private static final Include[] INCLUDES = {Include.NON_EMPTY, Include.NON_DEFAULT, Include.ALWAYS, Include.NON_NULL};
+
+    private static final Map<BinaryFormat, Map<Include, ObjectMapper>> MAPPERS = new EnumMap<>(BinaryFormat.class);
+
+    /**
+     * 写出到调用方提供的输出时不关闭输出
+     */
+    private static final Map<BinaryFormat, Map<Include, ObjectWriter>> STREAM_WRITERS = new EnumMap<>(BinaryFormat.class);
+
+    /**
+     * 从调用方提供的输入读取时不关闭输入
+     */
+    private static final Map<BinaryFormat, ObjectReader> STREAM_READERS = new EnumMap<>(BinaryFormat.class);
+
+    static {
+        for (BinaryFormat format : BinaryFormat.values()) {
+            Map<Include, ObjectMapper> mappers = new EnumMap<>(Include.class);
+            Map<Include, ObjectWriter> writers = new EnumMap<>(Include.class);
+            for (Include include : INCLUDES) {
+                ObjectMapper mapper = JsonUtils.newObjectMapper(format.newFactory(), include);
+                mappers.put(include, mapper);
+                writers.put(include, mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+            }
+            MAPPERS.put(format, mappers);
+            STREAM_WRITERS.put(format, writers);
+            STREAM_READERS.put(format, mappers.get(Include.ALWAYS).reader().without(JsonParser.Feature.AUTO_CLOSE_SOURCE));
+        }
+    }
+
+    private BinaryJsonUtils() {
+    }
+
+    /**
+     * 只输出非 Empty(也非 null)的属性
+     */
+    public static byte[] toNonEmptyBytes(Object object, BinaryFormat format) {
+        return toBytes(object, format, Include.NON_EMPTY);
+    }
+
+    /**
+     * 只输出初始值被改变的属性
+     */
+    public static byte[] toNonDefaultBytes(Object object, BinaryFormat format) {
+        return toBytes(object, format, Include.NON_DEFAULT);
+    }
+
+    /**
+     * 输出全部字段
+     */
+    public static byte[] toAlwaysBytes(Object object, BinaryFormat format) {
+        return toBytes(object, format, Include.ALWAYS);
+    }
+
+    /**
+     * 仅输出非 null 字段
+     */
+    public static byte[] toNonNullBytes(Object object, BinaryFormat format) {
+        return toBytes(object, format, Include.NON_NULL);
+    }
+
+    /**
+     * 按指定的 Include 风格序列化
+     */
+    public static byte[] toBytes(Object object, BinaryFormat format, Include include) {
+        try {
+            return mapper(format, include).writeValueAsBytes(object);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 按指定的 Include 风格直接写出到输出流，不会关闭输出流
+     */
+    public static void write(Object object, BinaryFormat format, Include include, OutputStream output) {
+        ObjectWriter writer = STREAM_WRITERS.get(format).get(include);
+        if (null == writer)
+            throw new IllegalArgumentException("unsupported include: " + include);
+        try {
+            writer.writeValue(output, object);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 反序列化无泛型的简单 bean
+     */
+    public static <T> T fromBytes(byte[] bytes, BinaryFormat format, Class<T> clazz) {
+        try {
+            return mapper(format, Include.ALWAYS).readValue(bytes, clazz);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 反序列化带有泛型的复杂对象
+     *
+     * @see JsonUtils#constructParametricType(Class, Class...)
+     */
+    public static <T> T fromBytes(byte[] bytes, BinaryFormat format, JavaType javaType) {
+        try {
+            return mapper(format, Include.ALWAYS).readValue(bytes, javaType);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 从输入流反序列化，不会关闭输入流
+     */
+    public static <T> T fromBytes(InputStream input, BinaryFormat format, Class<T> clazz) {
+        try {
+            return STREAM_READERS.get(format).forType(clazz).readValue(input);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 从输入流反序列化带有泛型的复杂对象，不会关闭输入流
+     *
+     * @see JsonUtils#constructParametricType(Class, Class...)
+     */
+    public static <T> T fromBytes(InputStream input, BinaryFormat format, JavaType javaType) {
+        try {
+            return STREAM_READERS.get(format).forType(javaType).readValue(input);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 获取指定格式与 Include 风格对应的内置 {@link ObjectMapper}
+     */
+    public static ObjectMapper mapper(BinaryFormat format, Include include) {
+        ObjectMapper mapper = MAPPERS.get(format).get(include);
+        if (null == mapper)
+            throw new IllegalArgumentException("unsupported include: " + include);
+        return mapper;
+    }
+}
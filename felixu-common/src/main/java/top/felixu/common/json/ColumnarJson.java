@@ -0,0 +1,135 @@
+package top.felixu.common.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 同类对象列表的列式编码
+ * <p>
+ * 格式为 {@code {"include":"NON_NULL","fields":["id","name"],"rows":[[1,"a"],[2,null]]}}，属性名只在表头中出现一次，
+ * 每行按表头顺序输出属性值。表头与每个值均通过对应 Include 风格的 mapper 中该类型的 BeanSerializer 输出，
+ * 与按行输出时被 Include 排除的属性在列式中输出为 null；解码时除 ALWAYS 外 null 视为属性不存在，目标对象保持默认值，
+ * 从而与按行输出再反序列化的结果一致。
+ * </p>
+ *
+ * @author felixu
+ * @since 2019.12.20
+ */
+final class ColumnarJson {
+
+    private static final String INCLUDE = "include";
+
+    private static final String FIELDS = "fields";
+
+    private static final String ROWS = "rows";
+
+    private ColumnarJson() {
+    }
+
+    static void write(ObjectMapper mapper, Include include, Iterable<?> rows, Class<?> clazz, JsonGenerator generator) throws IOException {
+        SerializerProvider provider = mapper.getSerializerProviderInstance();
+        JsonSerializer<Object> serializer = provider.findTypedValueSerializer(clazz, true, null);
+        if (!(serializer instanceof BeanSerializerBase))
+            throw JsonMappingException.from(generator, "columnar encoding requires a bean type, got " + clazz.getName());
+        List<PropertyWriter> properties = new ArrayList<>();
+        for (Iterator<PropertyWriter> iterator = serializer.properties(); iterator.hasNext(); )
+            properties.add(iterator.next());
+        generator.writeStartObject();
+        generator.writeStringField(INCLUDE, include.name());
+        generator.writeArrayFieldStart(FIELDS);
+        for (PropertyWriter property : properties)
+            generator.writeString(property.getName());
+        generator.writeEndArray();
+        generator.writeArrayFieldStart(ROWS);
+        try {
+            for (Object row : rows) {
+                if (null == row) {
+                    generator.writeNull();
+                    continue;
+                }
+                generator.writeStartArray();
+                for (PropertyWriter property : properties)
+                    property.serializeAsElement(row, generator, provider);
+                generator.writeEndArray();
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw JsonMappingException.from(generator, e.getMessage(), e);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    static <T> List<T> read(ObjectMapper mapper, JsonCodec<T> codec, JsonParser parser) throws IOException {
+        if (JsonToken.START_OBJECT != parser.nextToken())
+            throw JsonMappingException.from(parser, "columnar json must be an object");
+        boolean skipNulls = true;
+        List<String> fields = null;
+        List<T> result = null;
+        while (JsonToken.FIELD_NAME == parser.nextToken()) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            if (INCLUDE.equals(name)) {
+                skipNulls = Include.ALWAYS != Include.valueOf(parser.getText());
+            } else if (FIELDS.equals(name)) {
+                fields = new ArrayList<>();
+                while (JsonToken.END_ARRAY != parser.nextToken())
+                    fields.add(parser.getText());
+            } else if (ROWS.equals(name)) {
+                if (null == fields)
+                    throw JsonMappingException.from(parser, "\"fields\" must precede \"rows\"");
+                result = readRows(mapper, codec, parser, fields, skipNulls);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (null == result)
+            throw JsonMappingException.from(parser, "missing \"rows\"");
+        return result;
+    }
+
+    private static <T> List<T> readRows(ObjectMapper mapper, JsonCodec<T> codec, JsonParser parser,
+                                        List<String> fields, boolean skipNulls) throws IOException {
+        List<T> result = new ArrayList<>();
+        while (JsonToken.END_ARRAY != parser.nextToken()) {
+            if (JsonToken.VALUE_NULL == parser.currentToken()) {
+                result.add(null);
+                continue;
+            }
+            // 按表头把一行还原为对象的 token 序列，再通过编解码器绑定
+            TokenBuffer buffer = new TokenBuffer(mapper, false);
+            buffer.writeStartObject();
+            int column = 0;
+            while (JsonToken.END_ARRAY != parser.nextToken()) {
+                if (column >= fields.size())
+                    throw JsonMappingException.from(parser, "row has more values than fields");
+                String field = fields.get(column++);
+                if (skipNulls && JsonToken.VALUE_NULL == parser.currentToken())
+                    continue;
+                buffer.writeFieldName(field);
+                buffer.copyCurrentStructure(parser);
+            }
+            buffer.writeEndObject();
+            try (JsonParser row = buffer.asParser()) {
+                result.add(codec.fromJson(row));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,401 @@
+package top.felixu.common.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 紧凑的只读 Json 树
+ * <p>
+ * 整个文档解析为几个平铺的数组：每个节点占用一个类型字节与一个 long(数字直接以基本类型存放，字符串等存放于对象池中的下标，
+ * 对象/数组存放其成员在成员数组中的偏移与数量)，同一对象/数组的成员连续存放。
+ * 属性名通过全局的弱引用池共享，相同的属性名在所有文档中只保留一份。
+ * </p>
+ * <p>
+ * 对外通过 {@link Map}/{@link List} 视图访问，嵌套的对象/数组在首次访问时才创建视图并缓存在父视图中，
+ * 数字在读取时才装箱，装箱后的类型与 {@link JsonUtils#fromJsonToMap(String)} 一致。视图不可修改，修改操作抛出 {@link UnsupportedOperationException}。
+ * </p>
+ *
+ * @author felixu
+ * @since 2019.12.20
+ */
+final class CompactJson {
+
+    private static final byte OBJECT = 0;
+    private static final byte ARRAY = 1;
+    private static final byte STRING = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte TRUE = 6;
+    private static final byte FALSE = 7;
+    private static final byte NULL = 8;
+    private static final byte OTHER = 9;
+
+    /**
+     * 成员数量超过该值的对象按需建立哈希索引，否则顺序查找
+     */
+    private static final int LINEAR_SCAN_LIMIT = 8;
+
+    private static final Interner<String> KEYS = Interners.newWeakInterner();
+
+    private final byte[] kinds;
+
+    private final long[] values;
+
+    /**
+     * 对象/数组的成员节点，同一容器的成员连续存放
+     */
+    private final int[] members;
+
+    /**
+     * 与 members 对应的属性名，数组成员为 null
+     */
+    private final String[] names;
+
+    private final Object[] objects;
+
+    private CompactJson(Builder builder) {
+        this.kinds = Arrays.copyOf(builder.kinds, builder.nodes);
+        this.values = Arrays.copyOf(builder.values, builder.nodes);
+        this.members = Arrays.copyOf(builder.members, builder.memberCount);
+        this.names = Arrays.copyOf(builder.names, builder.memberCount);
+        this.objects = builder.objects.toArray();
+    }
+
+    /**
+     * 从解析器读取下一个完整的值
+     *
+     * @return 根节点的值，对象为 Map 视图，数组为 List 视图
+     */
+    static Object parse(JsonParser parser) throws IOException {
+        if (null == parser.nextToken())
+            throw new IOException("no content to map due to end-of-input");
+        Builder builder = new Builder();
+        int root = builder.value(parser);
+        return new CompactJson(builder).value(root, null, 0);
+    }
+
+    private Object value(int node, Object[] cache, int slot) {
+        switch (kinds[node]) {
+            case OBJECT:
+            case ARRAY:
+                if (null != cache && null != cache[slot])
+                    return cache[slot];
+                Object view = OBJECT == kinds[node] ? new MapView(this, node) : new ListView(this, node);
+                if (null != cache)
+                    cache[slot] = view;
+                return view;
+            case STRING:
+            case OTHER:
+                return objects[(int) values[node]];
+            case INT:
+                return (int) values[node];
+            case LONG:
+                return values[node];
+            case DOUBLE:
+                return Double.longBitsToDouble(values[node]);
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
+    }
+
+    private int offset(int node) {
+        return (int) (values[node] >>> 32);
+    }
+
+    private int count(int node) {
+        return (int) values[node];
+    }
+
+    private static final class MapView extends AbstractMap<String, Object> {
+
+        private final CompactJson json;
+
+        private final int offset;
+
+        private final int size;
+
+        private final Object[] children;
+
+        private volatile Map<String, Integer> index;
+
+        private Set<Entry<String, Object>> entrySet;
+
+        private MapView(CompactJson json, int node) {
+            this.json = json;
+            this.offset = json.offset(node);
+            this.size = json.count(node);
+            this.children = new Object[size];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public Object get(Object key) {
+            int i = indexOf(key);
+            return i < 0 ? null : child(i);
+        }
+
+        private Object child(int i) {
+            return json.value(json.members[offset + i], children, i);
+        }
+
+        private int indexOf(Object key) {
+            if (!(key instanceof String))
+                return -1;
+            if (size <= LINEAR_SCAN_LIMIT) {
+                String[] names = json.names;
+                for (int i = 0; i < size; i++) {
+                    String name = names[offset + i];
+                    if (name == key || name.equals(key))
+                        return i;
+                }
+                return -1;
+            }
+            Map<String, Integer> current = index;
+            if (null == current) {
+                current = new HashMap<>(size * 4 / 3 + 1);
+                for (int i = 0; i < size; i++)
+                    current.put(json.names[offset + i], i);
+                index = current;
+            }
+            Integer i = current.get(key);
+            return null == i ? -1 : i;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            if (null == entrySet) {
+                entrySet = new AbstractSet<Entry<String, Object>>() {
+                    @Override
+                    public Iterator<Entry<String, Object>> iterator() {
+                        return new Iterator<Entry<String, Object>>() {
+                            private int next;
+
+                            @Override
+                            public boolean hasNext() {
+                                return next < size;
+                            }
+
+                            @Override
+                            public Entry<String, Object> next() {
+                                if (next >= size)
+                                    throw new NoSuchElementException();
+                                int i = next++;
+                                return new SimpleImmutableEntry<>(json.names[offset + i], child(i));
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return size;
+                    }
+                };
+            }
+            return entrySet;
+        }
+    }
+
+    private static final class ListView extends AbstractList<Object> {
+
+        private final CompactJson json;
+
+        private final int offset;
+
+        private final int size;
+
+        private final Object[] children;
+
+        private ListView(CompactJson json, int node) {
+            this.json = json;
+            this.offset = json.offset(node);
+            this.size = json.count(node);
+            this.children = new Object[size];
+        }
+
+        @Override
+        public Object get(int index) {
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            return json.value(json.members[offset + index], children, index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * 解析过程中可增长的平铺数组，容器的成员先压入栈中，容器结束时整体移入成员数组以保证连续。
+     * 对象中重复的属性名只保留一个成员，位置为首次出现处，值为最后一次出现的值，与 Jackson 读取为 Map 时一致
+     */
+    private static final class Builder {
+
+        private byte[] kinds = new byte[64];
+
+        private long[] values = new long[64];
+
+        private int nodes;
+
+        private int[] members = new int[64];
+
+        private String[] names = new String[64];
+
+        private int memberCount;
+
+        private int[] stack = new int[64];
+
+        private String[] stackNames = new String[64];
+
+        private int top;
+
+        private final List<Object> objects = new ArrayList<>();
+
+        private int value(JsonParser parser) throws IOException {
+            JsonToken token = parser.currentToken();
+            switch (token) {
+                case START_OBJECT: {
+                    int node = node(OBJECT, 0);
+                    int from = top;
+                    Map<String, Integer> seen = null;
+                    while (JsonToken.FIELD_NAME == parser.nextToken()) {
+                        String name = KEYS.intern(parser.getCurrentName());
+                        parser.nextToken();
+                        int member = value(parser);
+                        int slot = -1;
+                        if (null != seen) {
+                            Integer i = seen.get(name);
+                            slot = null == i ? -1 : i;
+                        } else {
+                            for (int i = from; i < top; i++) {
+                                if (stackNames[i] == name) {
+                                    slot = i;
+                                    break;
+                                }
+                            }
+                        }
+                        if (slot >= 0) {
+                            stack[slot] = member;
+                            continue;
+                        }
+                        push(name, member);
+                        if (null != seen) {
+                            seen.put(name, top - 1);
+                        } else if (top - from > LINEAR_SCAN_LIMIT) {
+                            seen = new HashMap<>();
+                            for (int i = from; i < top; i++)
+                                seen.put(stackNames[i], i);
+                        }
+                    }
+                    values[node] = pop(from);
+                    return node;
+                }
+                case START_ARRAY: {
+                    int node = node(ARRAY, 0);
+                    int from = top;
+                    while (JsonToken.END_ARRAY != parser.nextToken())
+                        push(null, value(parser));
+                    values[node] = pop(from);
+                    return node;
+                }
+                case VALUE_STRING:
+                    return object(STRING, parser.getText());
+                case VALUE_NUMBER_INT:
+                    switch (parser.getNumberType()) {
+                        case INT:
+                            return node(INT, parser.getIntValue());
+                        case LONG:
+                            return node(LONG, parser.getLongValue());
+                        default:
+                            return object(OTHER, parser.getBigIntegerValue());
+                    }
+                case VALUE_NUMBER_FLOAT:
+                    return node(DOUBLE, Double.doubleToRawLongBits(parser.getDoubleValue()));
+                case VALUE_TRUE:
+                    return node(TRUE, 0);
+                case VALUE_FALSE:
+                    return node(FALSE, 0);
+                case VALUE_NULL:
+                    return node(NULL, 0);
+                case VALUE_EMBEDDED_OBJECT:
+                    return object(OTHER, parser.getEmbeddedObject());
+                default:
+                    throw new IOException("unexpected token: " + token);
+            }
+        }
+
+        private int node(byte kind, long value) {
+            if (nodes == kinds.length) {
+                kinds = Arrays.copyOf(kinds, nodes * 2);
+                values = Arrays.copyOf(values, nodes * 2);
+            }
+            kinds[nodes] = kind;
+            values[nodes] = value;
+            return nodes++;
+        }
+
+        private int object(byte kind, Object value) {
+            objects.add(value);
+            return node(kind, objects.size() - 1);
+        }
+
+        private void push(String name, int node) {
+            if (top == stack.length) {
+                stack = Arrays.copyOf(stack, top * 2);
+                stackNames = Arrays.copyOf(stackNames, top * 2);
+            }
+            stackNames[top] = name;
+            stack[top++] = node;
+        }
+
+        /**
+         * 将栈中 from 之后的成员移入成员数组
+         *
+         * @return 偏移与数量
+         */
+        private long pop(int from) {
+            int count = top - from;
+            if (memberCount + count > members.length) {
+                int capacity = Math.max(members.length * 2, memberCount + count);
+                members = Arrays.copyOf(members, capacity);
+                names = Arrays.copyOf(names, capacity);
+            }
+            System.arraycopy(stack, from, members, memberCount, count);
+            System.arraycopy(stackNames, from, names, memberCount, count);
+            Arrays.fill(stackNames, from, top, null);
+            long result = (long) memberCount << 32 | count;
+            memberCount += count;
+            top = from;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package top.felixu.common.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 非阻塞的 Json 解码器，适合 NIO 场景下边接收边解析，无需先缓冲完整的请求体
+ * <p>
+ * 基于 Jackson 的非阻塞解析器：每收到一块数据即调用 {@link #feed(ByteBuffer)}，解析器立即消费其中的全部字节并把已完成的
+ * token 记录到 {@link com.fasterxml.jackson.databind.util.TokenBuffer} 中，顶层值结束时直接从 token 绑定为目标类型并完成
+ * {@link #result()}，解析错误同样通过 {@link #result()} 以异常结束。
+ * 通过 {@link JsonUtils#asyncDecoder(Class)} 获取，每个实例只解码一个文档，非线程安全，同一时刻只能由一个线程调用。
+ * </p>
+ *
+ * @param <T> 目标类型
+ * @author felixu
+ * @since 2019.12.20
+ */
+public final class JsonAsyncDecoder<T> {
+
+    private final JsonCodec<T> codec;
+
+    private final JsonParser parser;
+
+    private final ByteArrayFeeder feeder;
+
+    private final TokenBuffer tokens;
+
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+
+    /**
+     * 直接内存等无底层数组的 ByteBuffer 复制到该数组后再交给解析器
+     */
+    private byte[] scratch;
+
+    private int depth;
+
+    JsonAsyncDecoder(ObjectMapper mapper, JsonCodec<T> codec) {
+        this.codec = codec;
+        try {
+            this.parser = mapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.tokens = new TokenBuffer(mapper, false);
+    }
+
+    /**
+     * 送入一块数据，ByteBuffer 中 position 到 limit 之间的字节会被全部消费，之后 position 移至 limit
+     * 文档已完成或已失败时忽略后续数据
+     *
+     * @param chunk 数据块
+     * @return 文档是否已结束(成功或失败)
+     */
+    public boolean feed(ByteBuffer chunk) {
+        if (result.isDone()) {
+            chunk.position(chunk.limit());
+            return true;
+        }
+        int length = chunk.remaining();
+        if (chunk.hasArray()) {
+            int start = chunk.arrayOffset() + chunk.position();
+            chunk.position(chunk.limit());
+            return feed(chunk.array(), start, start + length);
+        }
+        if (null == scratch || scratch.length < length)
+            scratch = new byte[Math.max(length, 8192)];
+        chunk.get(scratch, 0, length);
+        return feed(scratch, 0, length);
+    }
+
+    /**
+     * 送入 bytes 中 [start, end) 区间的数据，返回后该区间可被调用方复用
+     *
+     * @return 文档是否已结束(成功或失败)
+     */
+    public boolean feed(byte[] bytes, int start, int end) {
+        if (result.isDone())
+            return true;
+        try {
+            feeder.feedInput(bytes, start, end);
+            drain();
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        }
+        return result.isDone();
+    }
+
+    /**
+     * 输入结束，文档不完整时 {@link #result()} 以异常结束
+     */
+    public void end() {
+        if (result.isDone())
+            return;
+        feeder.endOfInput();
+        try {
+            drain();
+            if (!result.isDone())
+                fail(new IOException("unexpected end-of-input"));
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * 解码结果，顶层值结束时完成
+     */
+    public CompletableFuture<T> result() {
+        return result;
+    }
+
+    /**
+     * 消费解析器中已可用的全部 token
+     */
+    private void drain() throws IOException {
+        JsonToken token;
+        while (null != (token = parser.nextToken()) && JsonToken.NOT_AVAILABLE != token) {
+            tokens.copyCurrentEvent(parser);
+            if (token.isStructStart())
+                depth++;
+            else if (token.isStructEnd())
+                depth--;
+            if (0 == depth && JsonToken.FIELD_NAME != token) {
+                complete();
+                return;
+            }
+        }
+    }
+
+    private void complete() throws IOException {
+        parser.close();
+        try (JsonParser buffered = tokens.asParser()) {
+            result.complete(codec.fromJson(buffered));
+        }
+    }
+
+    private void fail(Throwable cause) {
+        try {
+            parser.close();
+        } catch (IOException ignored) {
+            // 已失败，忽略关闭时的异常
+        }
+        result.completeExceptionally(cause);
+    }
+}
@@ -0,0 +1,180 @@
+package top.felixu.common.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.Map;
+
+/**
+ * 绑定到某一类型的可复用编解码器，通过 {@link JsonUtils#codec(Class)} 获取
+ * <p>
+ * 内部持有预先构建好的 {@link ObjectReader} 与各 Include 风格的 {@link ObjectWriter}，
+ * 根反序列化器已提前解析；final 类型(及其数组)的根序列化器同样提前解析，其他类型按实例的实际类型查找序列化器，
+ * 以免丢失子类的属性。每次调用不再需要解析类型，适合热点接口。线程安全，可单例使用。
+ * </p>
+ *
+ * @param <T> 绑定的类型
+ * @author felixu
+ * @since 2019.12.20
+ */
+public final class JsonCodec<T> {
+
+    private final JavaType javaType;
+
+    private final ObjectReader reader;
+
+    private final Map<Include, ObjectWriter> writers;
+
+    JsonCodec(JavaType javaType, ObjectReader reader, Map<Include, ObjectWriter> writers) {
+        this.javaType = javaType;
+        this.reader = reader;
+        this.writers = writers;
+    }
+
+    public JavaType getJavaType() {
+        return javaType;
+    }
+
+    /**
+     * 只输出非 Empty(也非 null)的属性到 Json 字符串中
+     */
+    public String toNonEmptyJson(T value) {
+        return toJson(value, Include.NON_EMPTY);
+    }
+
+    /**
+     * 只输出初始值被改变的属性到 Json
+     */
+    public String toNonDefaultJson(T value) {
+        return toJson(value, Include.NON_DEFAULT);
+    }
+
+    /**
+     * 可输出全部字段到 json
+     */
+    public String toAlwaysJson(T value) {
+        return toJson(value, Include.ALWAYS);
+    }
+
+    /**
+     * 仅输出非 null 字段到 json
+     */
+    public String toNonNullJson(T value) {
+        return toJson(value, Include.NON_NULL);
+    }
+
+    /**
+     * 按指定的 Include 风格序列化为 Json 字符串
+     */
+    public String toJson(T value, Include include) {
+        try {
+            return writer(include).writeValueAsString(value);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 按指定的 Include 风格序列化为 UTF-8 字节
+     */
+    public byte[] toJsonBytes(T value, Include include) {
+        try {
+            return writer(include).writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 按指定的 Include 风格以 UTF-8 编码写出到输出流，不会关闭输出流
+     */
+    public void writeJson(T value, Include include, OutputStream output) {
+        try {
+            writer(include).writeValue(output, value);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public T fromJson(String json) {
+        try {
+            return reader.readValue(json);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public T fromJson(byte[] json) {
+        try {
+            return reader.readValue(json);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 从输入流反序列化，不会关闭输入流
+     */
+    public T fromJson(InputStream input) {
+        try {
+            return reader.readValue(input);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 从 UTF-8 字节的指定区间反序列化
+     */
+    T fromJson(byte[] json, int offset, int length) {
+        try {
+            return reader.readValue(json, offset, length);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 流式读取以当前类型为元素的 Json 数组，不会关闭输入流
+     */
+    MappingIterator<T> readValues(InputStream input) {
+        try {
+            return reader.readValues(input);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 流式读取以当前类型为元素的 Json 数组，不会关闭 Reader
+     */
+    MappingIterator<T> readValues(Reader input) {
+        try {
+            return reader.readValues(input);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 从解析器的下一个值反序列化，供内部的 token 缓冲等场景使用
+     */
+    T fromJson(JsonParser parser) throws IOException {
+        return reader.readValue(parser);
+    }
+
+    private ObjectWriter writer(Include include) {
+        ObjectWriter writer = writers.get(include);
+        if (null == writer)
+            throw new IllegalArgumentException("unsupported include: " + include);
+        return writer;
+    }
+}
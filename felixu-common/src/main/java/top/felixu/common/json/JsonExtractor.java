@@ -0,0 +1,136 @@
+package top.felixu.common.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按 JSON Pointer 从流式解析器中提取部分值
+ * <p>
+ * 所有路径先合并为一棵前缀树，解析时只进入前缀树中存在的字段/下标，其余子树直接跳过而不构建对象，
+ * 命中的值通过给定的 {@link ObjectMapper} 直接绑定为目标类型，全部路径都找到后立即停止解析。
+ * </p>
+ *
+ * @author felixu
+ * @since 2019.12.20
+ */
+final class JsonExtractor {
+
+    private final ObjectMapper mapper;
+
+    private final Node root = new Node();
+
+    private final int total;
+
+    private final Set<String> expressions;
+
+    private final Map<String, Object> result;
+
+    JsonExtractor(ObjectMapper mapper, Map<String, JavaType> pointers) {
+        this.mapper = mapper;
+        this.total = pointers.size();
+        this.expressions = pointers.keySet();
+        this.result = new HashMap<>(pointers.size() * 4 / 3 + 1);
+        pointers.forEach((expression, javaType) -> {
+            Node node = root;
+            for (JsonPointer pointer = JsonPointer.compile(expression); !pointer.matches(); pointer = pointer.tail())
+                node = node.children.computeIfAbsent(pointer.getMatchingProperty(), key -> new Node());
+            node.targets.put(expression, javaType);
+        });
+    }
+
+    /**
+     * 从解析器的下一个值开始提取，未找到的路径不会出现在结果中，值为 Json null 的路径对应 null
+     *
+     * @return 路径与值，顺序与传入的路径一致
+     */
+    Map<String, Object> extract(JsonParser parser) throws IOException {
+        if (total > 0 && null != parser.nextToken())
+            scan(parser, root);
+        Map<String, Object> ordered = new LinkedHashMap<>(result.size() * 4 / 3 + 1);
+        for (String expression : expressions) {
+            if (result.containsKey(expression))
+                ordered.put(expression, result.get(expression));
+        }
+        return ordered;
+    }
+
+    /**
+     * 解析器当前位于某个值的起始 token
+     *
+     * @return 是否已找到全部路径
+     */
+    private boolean scan(JsonParser parser, Node node) throws IOException {
+        if (!node.targets.isEmpty()) {
+            if (node.targets.size() == 1 && node.children.isEmpty()) {
+                // 没有更深的路径，直接绑定为目标类型
+                Map.Entry<String, JavaType> target = node.targets.entrySet().iterator().next();
+                result.put(target.getKey(), mapper.readValue(parser, target.getValue()));
+                return result.size() == total;
+            }
+            // 同时是其他路径的前缀，只构建该子树
+            JsonNode tree = mapper.readTree(parser);
+            return bindTree(null == tree ? NullNode.getInstance() : tree, node);
+        }
+        JsonToken token = parser.currentToken();
+        if (JsonToken.START_OBJECT == token) {
+            while (JsonToken.FIELD_NAME == parser.nextToken()) {
+                Node child = node.children.get(parser.getCurrentName());
+                parser.nextToken();
+                if (null == child)
+                    parser.skipChildren();
+                else if (scan(parser, child))
+                    return true;
+            }
+        } else if (JsonToken.START_ARRAY == token) {
+            int index = 0;
+            while (JsonToken.END_ARRAY != parser.nextToken()) {
+                Node child = node.children.get(String.valueOf(index++));
+                if (null == child)
+                    parser.skipChildren();
+                else if (scan(parser, child))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean bindTree(JsonNode tree, Node node) throws IOException {
+        for (Map.Entry<String, JavaType> target : node.targets.entrySet())
+            result.put(target.getKey(), mapper.readValue(mapper.treeAsTokens(tree), target.getValue()));
+        for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+            JsonNode child = tree.isArray() ? arrayElement(tree, entry.getKey()) : tree.get(entry.getKey());
+            if (null != child)
+                bindTree(child, entry.getValue());
+        }
+        return result.size() == total;
+    }
+
+    private static JsonNode arrayElement(JsonNode array, String segment) {
+        try {
+            return array.get(Integer.parseInt(segment));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 前缀树节点，targets 为以此节点结尾的路径及其目标类型
+     */
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>(4);
+
+        private final Map<String, JavaType> targets = new LinkedHashMap<>(2);
+    }
+}
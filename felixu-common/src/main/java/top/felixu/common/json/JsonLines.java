@@ -0,0 +1,299 @@
+package top.felixu.common.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * JSON Lines(NDJSON，每行一个 Json 对象)的批量读写
+ * <p>
+ * 读写均按批次拆分，每个批次在线程池中并行编码/绑定，调用线程按原有顺序依次写出/回调，
+ * 同时处理中的批次数量有上限，内存占用只与批次大小及并行度相关，适合百万级记录的导入导出。
+ * </p>
+ *
+ * @author felixu
+ * @since 2019.12.20
+ */
+public class JsonLines {
+
+    private static final byte NEW_LINE = '\n';
+
+    /**
+     * 同一批次内的记录以换行分隔，共用一个 JsonGenerator
+     */
+    private static final Map<Include, ObjectWriter> LINE_WRITERS = new EnumMap<>(Include.class);
+
+    static {
+        for (Include include : new Include[]{Include.NON_EMPTY, Include.NON_DEFAULT, Include.ALWAYS, Include.NON_NULL})
+            LINE_WRITERS.put(include, JsonUtils.streamWriter(include).withRootValueSeparator("\n"));
+    }
+
+    private static volatile int batchSize = 1024;
+
+    private static volatile int maxPendingBatches = Runtime.getRuntime().availableProcessors() * 2;
+
+    private static volatile ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    private JsonLines() {
+    }
+
+    /**
+     * 按指定的 Include 风格以 UTF-8 编码逐行写出，不会关闭输出流
+     *
+     * @param records 记录
+     * @param include Include 风格
+     * @param output  输出流
+     * @return 统计结果
+     */
+    public static JsonLinesReport write(Iterable<?> records, Include include, OutputStream output) {
+        return write(records.iterator(), include, output);
+    }
+
+    /**
+     * 按指定的 Include 风格以 UTF-8 编码逐行写出，不会关闭输出流
+     *
+     * @param records 记录，只遍历一次
+     * @param include Include 风格
+     * @param output  输出流
+     * @return 统计结果
+     */
+    public static JsonLinesReport write(Iterator<?> records, Include include, OutputStream output) {
+        ObjectWriter writer = LINE_WRITERS.get(include);
+        if (null == writer)
+            throw new IllegalArgumentException("unsupported include: " + include);
+        long start = System.nanoTime();
+        long[] count = {0};
+        int size = batchSize;
+        pipeline(() -> {
+            if (!records.hasNext())
+                return null;
+            List<Object> batch = new ArrayList<>(size);
+            while (batch.size() < size && records.hasNext())
+                batch.add(records.next());
+            count[0] += batch.size();
+            return batch;
+        }, batch -> encode(writer, batch), bytes -> {
+            try {
+                output.write(bytes);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        try {
+            output.flush();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return new JsonLinesReport(count[0], System.nanoTime() - start);
+    }
+
+    /**
+     * 按指定的 Include 风格写出到文件，文件已存在时覆盖
+     *
+     * @param records 记录
+     * @param include Include 风格
+     * @param path    文件路径
+     * @return 统计结果
+     */
+    public static JsonLinesReport write(Iterable<?> records, Include include, Path path) {
+        try (OutputStream output = Files.newOutputStream(path)) {
+            return write(records, include, output);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 逐行读取并绑定为指定类型，空行会被跳过，不会关闭输入流
+     *
+     * @param input    UTF-8 编码的输入流
+     * @param clazz    记录类型
+     * @param consumer 按原有顺序在调用线程中依次接收每条记录
+     * @param <T>      记录范型
+     * @return 统计结果
+     */
+    public static <T> JsonLinesReport read(InputStream input, Class<T> clazz, Consumer<? super T> consumer) {
+        return read(input, JsonUtils.codec(clazz), consumer);
+    }
+
+    /**
+     * 逐行读取并绑定为指定的泛型类型，空行会被跳过，不会关闭输入流
+     *
+     * @see JsonUtils#constructParametricType(Class, Class...)
+     * @see #read(InputStream, Class, Consumer)
+     */
+    public static <T> JsonLinesReport read(InputStream input, JavaType javaType, Consumer<? super T> consumer) {
+        return read(input, JsonUtils.<T>codec(javaType), consumer);
+    }
+
+    /**
+     * 逐行读取文件并绑定为指定类型
+     *
+     * @see #read(InputStream, Class, Consumer)
+     */
+    public static <T> JsonLinesReport read(Path path, Class<T> clazz, Consumer<? super T> consumer) {
+        try (InputStream input = Files.newInputStream(path)) {
+            return read(input, clazz, consumer);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 设置每个批次的记录数，默认为 1024
+     *
+     * @param size 批次大小
+     */
+    public static void setBatchSize(int size) {
+        if (size < 1)
+            throw new IllegalArgumentException("batchSize must be positive");
+        batchSize = size;
+    }
+
+    /**
+     * 设置同时处理中(已提交但尚未写出/回调)的批次数量上限，默认为 CPU 核数的两倍
+     *
+     * @param max 上限，传入 1 即退化为串行处理
+     */
+    public static void setMaxPendingBatches(int max) {
+        if (max < 1)
+            throw new IllegalArgumentException("maxPendingBatches must be positive");
+        maxPendingBatches = max;
+    }
+
+    /**
+     * 设置编码/绑定使用的线程池，默认为 {@link ForkJoinPool#commonPool()}
+     *
+     * @param forkJoinPool 线程池
+     */
+    public static void setPool(ForkJoinPool forkJoinPool) {
+        pool = Objects.requireNonNull(forkJoinPool);
+    }
+
+    private static <T> JsonLinesReport read(InputStream input, JsonCodec<T> codec, Consumer<? super T> consumer) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long start = System.nanoTime();
+        long[] lineNumber = {0};
+        long[] count = {0};
+        int size = batchSize;
+        pipeline(() -> {
+            List<String> lines = new ArrayList<>(size);
+            long first = lineNumber[0] + 1;
+            try {
+                String line;
+                while (lines.size() < size && null != (line = reader.readLine()))
+                    lines.add(line);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            lineNumber[0] += lines.size();
+            return lines.isEmpty() ? null : new LineBatch(first, lines);
+        }, batch -> bind(codec, batch), records -> {
+            count[0] += records.size();
+            records.forEach(consumer);
+        });
+        return new JsonLinesReport(count[0], System.nanoTime() - start);
+    }
+
+    private static byte[] encode(ObjectWriter writer, List<Object> batch) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(batch.size() * 128);
+        try (SequenceWriter sequence = writer.writeValues(output)) {
+            for (Object record : batch)
+                sequence.write(record);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        output.write(NEW_LINE);
+        return output.toByteArray();
+    }
+
+    private static <T> List<T> bind(JsonCodec<T> codec, LineBatch batch) {
+        List<T> records = new ArrayList<>(batch.lines.size());
+        for (int i = 0; i < batch.lines.size(); i++) {
+            String line = batch.lines.get(i);
+            if (line.trim().isEmpty())
+                continue;
+            try {
+                records.add(codec.fromJson(line));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("invalid json at line " + (batch.firstLine + i), null == e.getCause() ? e : e.getCause());
+            }
+        }
+        return records;
+    }
+
+    /**
+     * 调用线程逐批读取输入并提交到线程池处理，处理中的批次达到上限时先按顺序等待最早的批次完成并交给 sink，
+     * 从而在保持顺序的同时限制内存占用
+     *
+     * @param source 批次来源，返回 null 表示结束
+     * @param work   在线程池中执行的处理
+     * @param sink   在调用线程中按顺序接收处理结果
+     */
+    private static <B, R> void pipeline(Supplier<B> source, Function<B, R> work, Consumer<R> sink) {
+        ForkJoinPool executor = pool;
+        int max = maxPendingBatches;
+        ArrayDeque<CompletableFuture<R>> pending = new ArrayDeque<>(max);
+        try {
+            for (B batch = source.get(); null != batch; batch = source.get()) {
+                if (pending.size() >= max)
+                    sink.accept(await(pending.poll()));
+                B current = batch;
+                pending.add(CompletableFuture.supplyAsync(() -> work.apply(current), executor));
+            }
+            while (!pending.isEmpty())
+                sink.accept(await(pending.poll()));
+        } finally {
+            pending.forEach(future -> future.cancel(false));
+        }
+    }
+
+    private static <R> R await(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * 一个批次的原始行及其首行行号
+     */
+    private static final class LineBatch {
+
+        private final long firstLine;
+
+        private final List<String> lines;
+
+        private LineBatch(long firstLine, List<String> lines) {
+            this.firstLine = firstLine;
+            this.lines = lines;
+        }
+    }
+}
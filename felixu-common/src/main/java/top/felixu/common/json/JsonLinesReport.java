@@ -0,0 +1,45 @@
+package top.felixu.common.json;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON Lines 批量读写的统计结果
+ *
+ * @author felixu
+ * @since 2019.12.20
+ */
+@Getter
+public class JsonLinesReport {
+
+    /**
+     * 读取或写出的记录数
+     */
+    private final long records;
+
+    /**
+     * 总耗时(纳秒)
+     */
+    private final long totalNanos;
+
+    JsonLinesReport(long records, long totalNanos) {
+        this.records = records;
+        this.totalNanos = totalNanos;
+    }
+
+    /**
+     * 每秒处理的记录数
+     *
+     * @return 记录数/秒，耗时为 0 时返回 0
+     */
+    public double getRecordsPerSecond() {
+        return totalNanos <= 0 ? 0 : records * (double) TimeUnit.SECONDS.toNanos(1) / totalNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "JsonLinesReport(records=" + records + ", total=" + TimeUnit.NANOSECONDS.toMillis(totalNanos)
+                + "ms, recordsPerSecond=" + (long) getRecordsPerSecond() + ")";
+    }
+}
@@ -1,13 +1,21 @@
 package top.felixu.common.json;
 
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedOutputStream;
 import com.fasterxml.jackson.datatype.guava.GuavaModule;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -16,8 +24,21 @@ import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.deser.LocalTimeDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.deser.MonthDayDeserializer;
 import com.fasterxml.jackson.datatype.jsr310.deser.YearMonthDeserializer;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import top.felixu.common.date.DateFormatter;
+import top.felixu.common.date.DateTimeParsers;
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -25,9 +46,17 @@ import java.time.LocalTime;
 import java.time.MonthDay;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TimeZone;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Jackson 处理 json
@@ -42,6 +71,77 @@ public class JsonUtils {
     private static final ObjectMapper ALWAYS = newObjectMapper(Include.ALWAYS);
     private static final ObjectMapper NON_NULL = newObjectMapper(Include.NON_NULL);
 
+    /**
+     * 写出到调用方提供的输出时不关闭输出，由调用方管理其生命周期
+     */
+    private static final Map<Include, ObjectWriter> STREAM_WRITERS = new EnumMap<>(Include.class);
+
+    /**
+     * 从调用方提供的输入读取时不关闭输入
+     */
+    private static final ObjectReader STREAM_READER = ALWAYS.reader().without(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+    private static final Include[] INCLUDES = {Include.NON_EMPTY, Include.NON_DEFAULT, Include.ALWAYS, Include.NON_NULL};
+
+    static {
+        for (Include include : INCLUDES)
+            STREAM_WRITERS.put(include, mapper(include).writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+    }
+
+    /**
+     * 按 Class 缓存的编解码器，随 Class 一同回收
+     */
+    private static final ClassValue<JsonCodec<?>> CLASS_CODECS = new ClassValue<JsonCodec<?>>() {
+        @Override
+        protected JsonCodec<?> computeValue(Class<?> type) {
+            return newCodec(ALWAYS.constructType(type));
+        }
+    };
+
+    /**
+     * 按元素类型缓存的 List 编解码器，供 fromJsonToList 使用
+     */
+    private static final ClassValue<JsonCodec<?>> LIST_CODECS = new ClassValue<JsonCodec<?>>() {
+        @Override
+        protected JsonCodec<?> computeValue(Class<?> type) {
+            return codec(constructParametricType(List.class, type));
+        }
+    };
+
+    /**
+     * 泛型类型相关缓存的最大条目数，缓存强引用其中的 Class，限制数量以免重新部署时无法回收类加载器
+     */
+    private static final long MAXIMUM_CACHED_TYPES = 1024;
+
+    /**
+     * 按泛型 JavaType 缓存的编解码器
+     */
+    private static final LoadingCache<JavaType, JsonCodec<?>> TYPE_CODECS = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_CACHED_TYPES)
+            .build(new CacheLoader<JavaType, JsonCodec<?>>() {
+                @Override
+                public JsonCodec<?> load(JavaType key) {
+                    return newCodec(key);
+                }
+            });
+
+    /**
+     * 按(泛型类型, 参数类型...)缓存的 JavaType
+     */
+    private static final LoadingCache<List<Class<?>>, JavaType> PARAMETRIC_TYPES = CacheBuilder.newBuilder()
+            .maximumSize(MAXIMUM_CACHED_TYPES)
+            .build(new CacheLoader<List<Class<?>>, JavaType>() {
+                @Override
+                public JavaType load(List<Class<?>> key) {
+                    Class<?>[] parameters = key.subList(1, key.size()).toArray(new Class<?>[0]);
+                    return ALWAYS.getTypeFactory().constructParametricType(key.get(0), parameters);
+                }
+            });
+
+    private static final JavaType STRING_OBJECT_MAP = constructParametricType(Map.class, String.class, Object.class);
+
+    private static final JavaType OBJECT_TYPE = ALWAYS.constructType(Object.class);
+
     /**
      * 只输出非 Empty(也非 null)的属性到 Json 字符串中
      */
@@ -87,39 +187,532 @@ public class JsonUtils {
     }
 
     /**
-     * 反序列化无泛型的简单 bean
+     * 按指定的 Include 风格直接序列化为 UTF-8 字节，中间不产生字符串，内部缓冲区由 Jackson 回收复用
      */
-    public static <T> T fromJson(String jsonString, Class<T> clazz) {
+    public static byte[] toJsonBytes(Object object, Include include) {
+        try {
+            return mapper(include).writeValueAsBytes(object);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 按指定的 Include 风格以 UTF-8 编码直接写出到输出流，不会关闭输出流
+     */
+    public static void writeJson(Object object, Include include, OutputStream output) {
         try {
-            return ALWAYS.readValue(jsonString, clazz);
+            streamWriter(include).writeValue(output, object);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * 按指定的 Include 风格直接写出到 Writer，不会关闭 Writer
+     */
+    public static void writeJson(Object object, Include include, Writer writer) {
+        try {
+            streamWriter(include).writeValue(writer, object);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 按指定的 Include 风格以 UTF-8 编码从 ByteBuffer 当前位置开始写入，写入后 position 位于内容末尾
+     * 剩余空间不足时抛出 {@link java.nio.BufferOverflowException}
+     */
+    public static void writeJson(Object object, Include include, ByteBuffer buffer) {
+        writeJson(object, include, new ByteBufferBackedOutputStream(buffer));
+    }
+
+    /**
+     * 反序列化无泛型的简单 bean
+     */
+    public static <T> T fromJson(String jsonString, Class<T> clazz) {
+        return codec(clazz).fromJson(jsonString);
+    }
+
     /**
      * 反序列化带有泛型的复杂对象，如List<Bean>，可以先使用方法 constructParametricType 构造类型，然后调用本方法
      *
      * @see #constructParametricType(Class, Class...)
      */
     public static <T> T fromJson(String jsonString, JavaType javaType) {
-        try {
-            return ALWAYS.readValue(jsonString, javaType);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        return JsonUtils.<T>codec(javaType).fromJson(jsonString);
+    }
+
+    /**
+     * 从 UTF-8 字节反序列化无泛型的简单 bean
+     */
+    public static <T> T fromJson(byte[] json, Class<T> clazz) {
+        return codec(clazz).fromJson(json);
+    }
+
+    /**
+     * 从 UTF-8 字节反序列化带有泛型的复杂对象
+     *
+     * @see #constructParametricType(Class, Class...)
+     */
+    public static <T> T fromJson(byte[] json, JavaType javaType) {
+        return JsonUtils.<T>codec(javaType).fromJson(json);
+    }
+
+    /**
+     * 从输入流反序列化无泛型的简单 bean，不会关闭输入流
+     */
+    public static <T> T fromJson(InputStream input, Class<T> clazz) {
+        return codec(clazz).fromJson(input);
+    }
+
+    /**
+     * 从输入流反序列化带有泛型的复杂对象，不会关闭输入流
+     *
+     * @see #constructParametricType(Class, Class...)
+     */
+    public static <T> T fromJson(InputStream input, JavaType javaType) {
+        return JsonUtils.<T>codec(javaType).fromJson(input);
+    }
+
+    /**
+     * 创建非阻塞解码器，数据分块到达时逐块送入，解析与网络 I/O 交替进行，无需缓冲完整的请求体
+     *
+     * @see JsonAsyncDecoder
+     */
+    public static <T> JsonAsyncDecoder<T> asyncDecoder(Class<T> clazz) {
+        return new JsonAsyncDecoder<>(ALWAYS, codec(clazz));
+    }
+
+    /**
+     * 创建解码为带有泛型的复杂对象的非阻塞解码器
+     *
+     * @see #constructParametricType(Class, Class...)
+     * @see JsonAsyncDecoder
+     */
+    public static <T> JsonAsyncDecoder<T> asyncDecoder(JavaType javaType) {
+        return new JsonAsyncDecoder<>(ALWAYS, JsonUtils.<T>codec(javaType));
+    }
+
+    /**
+     * 从 ByteBuffer 的 position 到 limit 之间的 UTF-8 字节反序列化，读取后 position 移至 limit
+     */
+    public static <T> T fromJson(ByteBuffer buffer, Class<T> clazz) {
+        return fromJson(buffer, codec(clazz));
+    }
+
+    /**
+     * 从 ByteBuffer 的 position 到 limit 之间的 UTF-8 字节反序列化带有泛型的复杂对象，读取后 position 移至 limit
+     *
+     * @see #constructParametricType(Class, Class...)
+     */
+    public static <T> T fromJson(ByteBuffer buffer, JavaType javaType) {
+        return fromJson(buffer, JsonUtils.<T>codec(javaType));
+    }
+
+    private static <T> T fromJson(ByteBuffer buffer, JsonCodec<T> codec) {
+        if (buffer.hasArray()) {
+            // 堆内存直接使用底层数组，避免拷贝
+            T result = codec.fromJson(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            buffer.position(buffer.limit());
+            return result;
         }
+        return codec.fromJson(new ByteBufferBackedInputStream(buffer));
     }
 
     public static <T> List<T> fromJsonToList(String json, Class<T> elementClass) {
-        return fromJson(json, constructParametricType(List.class, elementClass));
+        @SuppressWarnings("unchecked")
+        JsonCodec<List<T>> codec = (JsonCodec<List<T>>) LIST_CODECS.get(elementClass);
+        return codec.fromJson(json);
     }
 
     public static <K, V> Map<K, V> fromJsonToMap(String json, Class<K> keyClass, Class<V> valueClass) {
-        return fromJson(json, constructParametricType(Map.class, keyClass, valueClass));
+        return JsonUtils.<Map<K, V>>codec(constructParametricType(Map.class, keyClass, valueClass)).fromJson(json);
     }
 
     public static Map<String, Object> fromJsonToMap(String json) {
-        return fromJson(json, constructParametricType(Map.class, String.class, Object.class));
+        return JsonUtils.<Map<String, Object>>codec(STRING_OBJECT_MAP).fromJson(json);
+    }
+
+    /**
+     * 反序列化为紧凑的只读 Map，适合长期缓存的配置、规则等文档
+     * 属性名全局共享，数字以基本类型存放，嵌套的对象/数组在首次访问时才创建视图，堆占用远小于 {@link #fromJsonToMap(String)}
+     * 返回的 Map 及其嵌套的 Map/List 均不可修改
+     */
+    public static Map<String, Object> fromJsonToCompactMap(String json) {
+        try (JsonParser parser = ALWAYS.getFactory().createParser(json)) {
+            return compactMap(CompactJson.parse(parser));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 从 UTF-8 字节反序列化为紧凑的只读 Map
+     *
+     * @see #fromJsonToCompactMap(String)
+     */
+    public static Map<String, Object> fromJsonToCompactMap(byte[] json) {
+        try (JsonParser parser = ALWAYS.getFactory().createParser(json)) {
+            return compactMap(CompactJson.parse(parser));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> compactMap(Object value) {
+        if (!(value instanceof Map))
+            throw new IllegalArgumentException("json is not an object");
+        return (Map<String, Object>) value;
+    }
+
+    /**
+     * 以列式编码输出同类对象列表：属性名只在表头中出现一次，每行按表头顺序输出属性值，适合大量行的报表等响应
+     * 按 Include 风格被排除的属性输出为 null，可通过 {@link #fromColumnarJson(String, Class)} 还原
+     *
+     * @param rows    对象列表，元素须为 clazz 的实例
+     * @param clazz   元素类型，须为普通 bean
+     * @param include Include 风格
+     */
+    public static <T> String toColumnarJson(Iterable<? extends T> rows, Class<T> clazz, Include include) {
+        StringWriter writer = new StringWriter();
+        writeColumnarJson(rows, clazz, include, writer);
+        return writer.toString();
+    }
+
+    /**
+     * 以列式编码直接写出到 Writer，不会关闭 Writer
+     *
+     * @see #toColumnarJson(Iterable, Class, Include)
+     */
+    public static <T> void writeColumnarJson(Iterable<? extends T> rows, Class<T> clazz, Include include, Writer writer) {
+        ObjectMapper mapper = mapper(include);
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(writer)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            ColumnarJson.write(mapper, include, rows, clazz, generator);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 以列式编码按 UTF-8 直接写出到输出流，不会关闭输出流
+     *
+     * @see #toColumnarJson(Iterable, Class, Include)
+     */
+    public static <T> void writeColumnarJson(Iterable<? extends T> rows, Class<T> clazz, Include include, OutputStream output) {
+        ObjectMapper mapper = mapper(include);
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            ColumnarJson.write(mapper, include, rows, clazz, generator);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 解码列式编码的 Json 为对象列表
+     *
+     * @see #toColumnarJson(Iterable, Class, Include)
+     */
+    public static <T> List<T> fromColumnarJson(String json, Class<T> clazz) {
+        try (JsonParser parser = ALWAYS.getFactory().createParser(json)) {
+            return ColumnarJson.read(ALWAYS, codec(clazz), parser);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 从输入流解码列式编码的 Json，不会关闭输入流
+     *
+     * @see #toColumnarJson(Iterable, Class, Include)
+     */
+    public static <T> List<T> fromColumnarJson(InputStream input, Class<T> clazz) {
+        try (JsonParser parser = ALWAYS.getFactory().createParser(input)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            return ColumnarJson.read(ALWAYS, codec(clazz), parser);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 获取绑定到指定类型的可复用编解码器，编解码器按类型缓存，根反序列化器只解析一次
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> JsonCodec<T> codec(Class<T> clazz) {
+        return (JsonCodec<T>) CLASS_CODECS.get(clazz);
+    }
+
+    /**
+     * 获取绑定到指定泛型类型的可复用编解码器，可以先使用方法 constructParametricType 构造类型
+     *
+     * @see #constructParametricType(Class, Class...)
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> JsonCodec<T> codec(JavaType javaType) {
+        return (JsonCodec<T>) TYPE_CODECS.getUnchecked(javaType);
+    }
+
+    private static JsonCodec<?> newCodec(JavaType javaType) {
+        // 只有不存在子类的类型才能固定根序列化器，否则子类实例的属性会按声明类型被丢弃
+        boolean fixedRoot = isFinalType(javaType);
+        Map<Include, ObjectWriter> writers = new EnumMap<>(Include.class);
+        for (Include include : INCLUDES) {
+            ObjectWriter writer = fixedRoot ? mapper(include).writerFor(javaType) : mapper(include).writer();
+            writers.put(include, writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+        }
+        return new JsonCodec<>(javaType, STREAM_READER.forType(javaType), writers);
+    }
+
+    /**
+     * 基本类型、final 类型及元素为这些类型的数组，数组类本身总是 final，需按元素类型判断
+     */
+    private static boolean isFinalType(JavaType javaType) {
+        if (javaType.isArrayType())
+            return isFinalType(javaType.getContentType());
+        return javaType.isPrimitive() || javaType.isFinal();
+    }
+
+    /**
+     * 流式读取 Json 数组，每次调用 next 时才绑定一个元素，内存占用只与单个元素大小相关，适合超大的数组
+     * 不会关闭输入流，由调用方负责关闭；{@link MappingIterator#close()} 只释放解析器
+     */
+    public static <T> MappingIterator<T> fromJsonToIterator(InputStream input, Class<T> elementClass) {
+        return codec(elementClass).readValues(input);
+    }
+
+    /**
+     * 流式读取元素为泛型类型的 Json 数组
+     *
+     * @see #fromJsonToIterator(InputStream, Class)
+     */
+    public static <T> MappingIterator<T> fromJsonToIterator(InputStream input, JavaType elementType) {
+        return JsonUtils.<T>codec(elementType).readValues(input);
+    }
+
+    /**
+     * 流式读取 Json 数组，不会关闭 Reader
+     *
+     * @see #fromJsonToIterator(InputStream, Class)
+     */
+    public static <T> MappingIterator<T> fromJsonToIterator(Reader reader, Class<T> elementClass) {
+        return codec(elementClass).readValues(reader);
+    }
+
+    /**
+     * 流式读取元素为泛型类型的 Json 数组，不会关闭 Reader
+     *
+     * @see #fromJsonToIterator(InputStream, Class)
+     */
+    public static <T> MappingIterator<T> fromJsonToIterator(Reader reader, JavaType elementType) {
+        return JsonUtils.<T>codec(elementType).readValues(reader);
+    }
+
+    /**
+     * 以惰性 Stream 的形式流式读取 Json 数组，关闭 Stream 只释放解析器，输入流由调用方负责关闭
+     */
+    public static <T> Stream<T> fromJsonToStream(InputStream input, Class<T> elementClass) {
+        return toStream(fromJsonToIterator(input, elementClass));
+    }
+
+    /**
+     * 以惰性 Stream 的形式流式读取元素为泛型类型的 Json 数组，输入流由调用方负责关闭
+     *
+     * @see #fromJsonToStream(InputStream, Class)
+     */
+    public static <T> Stream<T> fromJsonToStream(InputStream input, JavaType elementType) {
+        return toStream(fromJsonToIterator(input, elementType));
+    }
+
+    /**
+     * 以惰性 Stream 的形式流式读取 Json 数组，Reader 由调用方负责关闭
+     */
+    public static <T> Stream<T> fromJsonToStream(Reader reader, Class<T> elementClass) {
+        return toStream(fromJsonToIterator(reader, elementClass));
+    }
+
+    /**
+     * 以惰性 Stream 的形式流式读取元素为泛型类型的 Json 数组，Reader 由调用方负责关闭
+     *
+     * @see #fromJsonToStream(Reader, Class)
+     */
+    public static <T> Stream<T> fromJsonToStream(Reader reader, JavaType elementType) {
+        return toStream(fromJsonToIterator(reader, elementType));
+    }
+
+    /**
+     * 以惰性 Stream 的形式流式读取 Json 数组文件，使用完毕后请关闭 Stream 以关闭文件
+     */
+    public static <T> Stream<T> fromJsonToStream(Path path, Class<T> elementClass) {
+        return fromJsonToStream(path, codec(elementClass));
+    }
+
+    /**
+     * 以惰性 Stream 的形式流式读取元素为泛型类型的 Json 数组文件，使用完毕后请关闭 Stream 以关闭文件
+     *
+     * @see #fromJsonToStream(Path, Class)
+     */
+    public static <T> Stream<T> fromJsonToStream(Path path, JavaType elementType) {
+        return fromJsonToStream(path, JsonUtils.<T>codec(elementType));
+    }
+
+    private static <T> Stream<T> fromJsonToStream(Path path, JsonCodec<T> codec) {
+        InputStream input = null;
+        try {
+            input = new BufferedInputStream(Files.newInputStream(path));
+            InputStream file = input;
+            // 解析器不会关闭输入，文件随 Stream 一同关闭
+            return toStream(codec.readValues(input)).onClose(() -> {
+                try {
+                    file.close();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            if (null != input) {
+                try {
+                    input.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+        }
+    }
+
+    private static <T> Stream<T> toStream(MappingIterator<T> iterator) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        iterator.close();
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+    }
+
+    /**
+     * 按 JSON Pointer(如 /data/items/0/id)提取单个值并绑定为指定类型，不会绑定整个文档
+     * 解析时跳过无关的子树，找到后立即停止解析，适合只需读取大报文中类型、id 等少数字段的场景
+     *
+     * @return 提取的值，路径不存在或值为 Json null 时返回 null
+     */
+    public static <T> T extract(String json, String pointer, Class<T> clazz) {
+        return extract(json, pointer, ALWAYS.constructType(clazz));
+    }
+
+    /**
+     * 按 JSON Pointer 提取单个值并绑定为带有泛型的复杂类型
+     *
+     * @see #extract(String, String, Class)
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T extract(String json, String pointer, JavaType javaType) {
+        return (T) extract(json, Collections.singletonMap(pointer, javaType)).get(pointer);
+    }
+
+    /**
+     * 从 UTF-8 字节中按 JSON Pointer 提取单个值
+     *
+     * @see #extract(String, String, Class)
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T extract(byte[] json, String pointer, Class<T> clazz) {
+        return (T) extract(json, Collections.singletonMap(pointer, ALWAYS.constructType(clazz))).get(pointer);
+    }
+
+    /**
+     * 一次扫描提取多个路径，值为 Map、List、String、Number、Boolean 等基础类型，全部找到后立即停止解析
+     *
+     * @return 路径与值，顺序与传入的路径一致，不存在的路径不会出现在结果中
+     */
+    public static Map<String, Object> extract(String json, String... pointers) {
+        Map<String, JavaType> types = new LinkedHashMap<>(pointers.length * 4 / 3 + 1);
+        for (String pointer : pointers)
+            types.put(pointer, OBJECT_TYPE);
+        return extract(json, types);
+    }
+
+    /**
+     * 一次扫描提取多个路径，每个路径绑定为各自的类型
+     *
+     * @param pointers 路径与目标类型
+     * @return 路径与值，顺序与传入的路径一致，不存在的路径不会出现在结果中
+     */
+    public static Map<String, Object> extract(String json, Map<String, JavaType> pointers) {
+        try (JsonParser parser = ALWAYS.getFactory().createParser(json)) {
+            return new JsonExtractor(ALWAYS, pointers).extract(parser);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 从 UTF-8 字节中一次扫描提取多个路径
+     *
+     * @see #extract(String, Map)
+     */
+    public static Map<String, Object> extract(byte[] json, Map<String, JavaType> pointers) {
+        try (JsonParser parser = ALWAYS.getFactory().createParser(json)) {
+            return new JsonExtractor(ALWAYS, pointers).extract(parser);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 将对象直接转换为指定类型，如 Map 转 Bean、DTO 转另一种 DTO
+     * 通过 TokenBuffer 在内存中传递 Json 事件，中间不会产生 Json 字符串
+     * 原对象已是目标类型的实例时直接返回
+     */
+    public static <T> T convert(Object source, Class<T> clazz) {
+        return ALWAYS.convertValue(source, clazz);
+    }
+
+    /**
+     * 将对象直接转换为带有泛型的复杂类型，可以先使用方法 constructParametricType 构造类型
+     *
+     * @see #constructParametricType(Class, Class...)
+     */
+    public static <T> T convert(Object source, JavaType javaType) {
+        return ALWAYS.convertValue(source, javaType);
+    }
+
+    /**
+     * 按指定的 Include 风格将对象直接转换为指定类型，如使用 NON_NULL 时，原对象中为 null 的属性不会参与转换
+     */
+    public static <T> T convert(Object source, Include include, Class<T> clazz) {
+        return mapper(include).convertValue(source, clazz);
+    }
+
+    /**
+     * 按指定的 Include 风格将对象直接转换为带有泛型的复杂类型
+     *
+     * @see #constructParametricType(Class, Class...)
+     */
+    public static <T> T convert(Object source, Include include, JavaType javaType) {
+        return mapper(include).convertValue(source, javaType);
+    }
+
+    /**
+     * 预热指定类型：提前构建各 Include 风格下的序列化器与反序列化器，避免首次序列化时的延迟
+     */
+    public static void warmUp(Class<?> clazz) {
+        codec(clazz);
+    }
+
+    /**
+     * 预热指定类型，泛型类型可先使用方法 constructParametricType 构造
+     *
+     * @see #constructParametricType(Class, Class...)
+     */
+    public static void warmUp(JavaType javaType) {
+        // 编解码器中指定类型的 ObjectReader 会预先查找根反序列化器，final 类型的 ObjectWriter 会预先查找根序列化器
+        codec(javaType);
     }
 
     /**
@@ -128,7 +721,38 @@ public class JsonUtils {
      * {@code HashMap<String, MyBean>}, 则调用 constructParametricType(HashMap.class,String.class, MyBean.class)
      */
     public static JavaType constructParametricType(Class<?> parametrized, Class<?>... elementClasses) {
-        return ALWAYS.getTypeFactory().constructParametricType(parametrized, elementClasses);
+        List<Class<?>> key = new ArrayList<>(elementClasses.length + 1);
+        key.add(parametrized);
+        Collections.addAll(key, elementClasses);
+        return PARAMETRIC_TYPES.getUnchecked(key);
+    }
+
+    /**
+     * 获取指定 Include 风格下不会关闭输出的 {@link ObjectWriter}
+     */
+    static ObjectWriter streamWriter(Include include) {
+        ObjectWriter writer = STREAM_WRITERS.get(include);
+        if (null == writer)
+            throw new IllegalArgumentException("unsupported include: " + include);
+        return writer;
+    }
+
+    /**
+     * 获取指定 Include 风格对应的内置 {@link ObjectMapper}
+     */
+    private static ObjectMapper mapper(Include include) {
+        switch (include) {
+            case NON_EMPTY:
+                return NON_EMPTY;
+            case NON_DEFAULT:
+                return NON_DEFAULT;
+            case NON_NULL:
+                return NON_NULL;
+            case ALWAYS:
+                return ALWAYS;
+            default:
+                throw new IllegalArgumentException("unsupported include: " + include);
+        }
     }
 
     /**
@@ -139,7 +763,19 @@ public class JsonUtils {
      * @return {@link ObjectMapper}
      */
     public static ObjectMapper newObjectMapper(Include include) {
-        ObjectMapper mapper = new ObjectMapper();
+        return newObjectMapper(new JsonFactory(), include);
+    }
+
+    /**
+     * 基于指定的 {@link JsonFactory} 创建 {@link ObjectMapper}，配置与 {@link #newObjectMapper(Include)} 完全一致，
+     * 可传入 SmileFactory、CBORFactory 等二进制格式的工厂
+     *
+     * @param factory 数据格式对应的工厂
+     * @param include 设置输出时包含属性的风格
+     * @return {@link ObjectMapper}
+     */
+    public static ObjectMapper newObjectMapper(JsonFactory factory, Include include) {
+        ObjectMapper mapper = new ObjectMapper(factory);
         mapper.setSerializationInclusion(include);
 
         // 开启忽略 Java bean 中不存在的属性
@@ -165,6 +801,10 @@ public class JsonUtils {
         return mapper;
     }
 
+    /**
+     * 注册自定义的 Java8 时间反序列化器：字符串输入先按形状识别常用格式直接解析，正常输入不会抛出异常，
+     * 无法识别时再依次尝试 ISO 格式与 {@link DateFormatter} 中对应的格式
+     */
     public static void registerCustomModule(ObjectMapper mapper) {
         SimpleModule module = new SimpleModule();
         module.addDeserializer(LocalDateTime.class, new CustomLocalDateTimeDeserializer(DateFormatter.FULL_DATE_SECONDS.getFormatter()));
@@ -188,6 +828,11 @@ public class JsonUtils {
 
         @Override
         public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.hasToken(JsonToken.VALUE_STRING)) {
+                LocalDateTime value = DateTimeParsers.parseLocalDateTime(parser.getText().trim());
+                if (null != value)
+                    return value;
+            }
             try {
                 return super.deserialize(parser, context);
             } catch (IOException e) {
@@ -210,6 +855,11 @@ public class JsonUtils {
 
         @Override
         public LocalDate deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.hasToken(JsonToken.VALUE_STRING)) {
+                LocalDate value = DateTimeParsers.parseLocalDate(parser.getText().trim());
+                if (null != value)
+                    return value;
+            }
             try {
                 return super.deserialize(parser, context);
             } catch (IOException e) {
@@ -232,6 +882,11 @@ public class JsonUtils {
 
         @Override
         public LocalTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.hasToken(JsonToken.VALUE_STRING)) {
+                LocalTime value = DateTimeParsers.parseLocalTime(parser.getText().trim());
+                if (null != value)
+                    return value;
+            }
             try {
                 return super.deserialize(parser, context);
             } catch (IOException e) {
@@ -254,6 +909,11 @@ public class JsonUtils {
 
         @Override
         public YearMonth deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.hasToken(JsonToken.VALUE_STRING)) {
+                YearMonth value = DateTimeParsers.parseYearMonth(parser.getText().trim());
+                if (null != value)
+                    return value;
+            }
             try {
                 return super.deserialize(parser, context);
             } catch (IOException e) {
@@ -275,6 +935,11 @@ public class JsonUtils {
 
         @Override
         public MonthDay deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.hasToken(JsonToken.VALUE_STRING)) {
+                MonthDay value = DateTimeParsers.parseMonthDay(parser.getText().trim());
+                if (null != value)
+                    return value;
+            }
             try {
                 return super.deserialize(parser, context);
             } catch (IOException e) {
@@ -0,0 +1,84 @@
+package top.felixu.common.warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * 扫描 classpath 中指定包(含子包)下的类，支持目录与 jar
+ *
+ * @author felixu
+ * @since 2019.12.19
+ */
+class ClassScanner {
+
+    private ClassScanner() {
+    }
+
+    static List<Class<?>> scan(String packageName) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (null == classLoader)
+            classLoader = ClassScanner.class.getClassLoader();
+        String path = packageName.replace('.', '/');
+        Set<String> classNames = new LinkedHashSet<>();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(path);
+            while (resources.hasMoreElements()) {
+                URL url = resources.nextElement();
+                if ("file".equals(url.getProtocol()))
+                    scanDirectory(new File(URLDecoder.decode(url.getFile(), "UTF-8")), packageName, classNames);
+                else if ("jar".equals(url.getProtocol()))
+                    scanJar(((JarURLConnection) url.openConnection()).getJarFile(), path, classNames);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<Class<?>> result = new ArrayList<>(classNames.size());
+        for (String className : classNames) {
+            try {
+                Class<?> clazz = Class.forName(className, false, classLoader);
+                if (!clazz.isAnonymousClass() && !clazz.isLocalClass() && !clazz.isSynthetic())
+                    result.add(clazz);
+            } catch (ClassNotFoundException | LinkageError ignored) {
+                // 依赖缺失的类无法预热，跳过
+            }
+        }
+        return result;
+    }
+
+    private static void scanDirectory(File directory, String packageName, Set<String> classNames) {
+        File[] files = directory.listFiles();
+        if (null == files)
+            return;
+        for (File file : files) {
+            if (file.isDirectory())
+                scanDirectory(file, packageName + "." + file.getName(), classNames);
+            else
+                addClassName(packageName + "." + file.getName(), classNames);
+        }
+    }
+
+    private static void scanJar(JarFile jar, String path, Set<String> classNames) {
+        Enumeration<JarEntry> entries = jar.entries();
+        while (entries.hasMoreElements()) {
+            String name = entries.nextElement().getName();
+            if (name.startsWith(path + "/"))
+                addClassName(name.replace('/', '.'), classNames);
+        }
+    }
+
+    private static void addClassName(String fileName, Set<String> classNames) {
+        if (fileName.endsWith(".class") && !fileName.endsWith("package-info.class") && !fileName.endsWith("module-info.class"))
+            classNames.add(fileName.substring(0, fileName.length() - ".class".length()));
+    }
+}
@@ -0,0 +1,156 @@
+package top.felixu.common.warmup;
+
+import com.fasterxml.jackson.databind.JavaType;
+import top.felixu.common.bean.BeanUtils;
+import top.felixu.common.json.JsonUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 启动预热，提前构建 {@link BeanUtils} 的 Mapper 与 {@link JsonUtils} 的序列化器、反序列化器及 JavaType，
+ * 避免发布后首批请求承担类型元数据的构建开销，如：
+ * <pre>
+ * WarmUpReport report = WarmUp.create()
+ *         .beanPair(UserDTO.class, User.class)
+ *         .jsonPackage("top.felixu.demo.dto")
+ *         .parallel(true)
+ *         .run();
+ * </pre>
+ *
+ * @author felixu
+ * @since 2019.12.19
+ */
+public class WarmUp {
+
+    /**
+     * 按名称去重的预热项，同一类型重复添加时只预热一次
+     */
+    private final Map<String, Task> tasks = new LinkedHashMap<>();
+
+    private boolean parallel;
+
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    private WarmUp() {
+    }
+
+    public static WarmUp create() {
+        return new WarmUp();
+    }
+
+    /**
+     * 预热 BeanUtils 中指定类型对的拷贝，范围见 {@link BeanUtils#warmUp(Class, Class)}
+     *
+     * @param srcClass  原始类型
+     * @param destClass 目标类型
+     * @return this
+     */
+    public WarmUp beanPair(Class<?> srcClass, Class<?> destClass) {
+        add("bean " + srcClass.getName() + " -> " + destClass.getName(), () -> BeanUtils.warmUp(srcClass, destClass));
+        return this;
+    }
+
+    /**
+     * 预热 JsonUtils 中指定类型的序列化与反序列化
+     *
+     * @param classes 类型
+     * @return this
+     */
+    public WarmUp jsonType(Class<?>... classes) {
+        for (Class<?> clazz : classes)
+            add("json " + clazz.getName(), () -> JsonUtils.warmUp(clazz));
+        return this;
+    }
+
+    /**
+     * 预热 JsonUtils 中指定泛型类型的序列化与反序列化
+     *
+     * @param javaType 类型
+     * @return this
+     */
+    public WarmUp jsonType(JavaType javaType) {
+        add("json " + javaType.toCanonical(), () -> JsonUtils.warmUp(javaType));
+        return this;
+    }
+
+    /**
+     * 扫描指定包(含子包)下的具体类型，预热 JsonUtils 中它们的序列化与反序列化
+     *
+     * @param packageName 包名
+     * @return this
+     */
+    public WarmUp jsonPackage(String packageName) {
+        for (Class<?> clazz : ClassScanner.scan(packageName)) {
+            if (!clazz.isInterface() && !clazz.isAnnotation())
+                jsonType(clazz);
+        }
+        return this;
+    }
+
+    /**
+     * 是否并行执行预热，默认串行
+     *
+     * @param parallel 是否并行
+     * @return this
+     */
+    public WarmUp parallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * 并行执行时使用的线程池，默认为 {@link ForkJoinPool#commonPool()}
+     *
+     * @param pool 线程池
+     * @return this
+     */
+    public WarmUp pool(ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool);
+        return this;
+    }
+
+    /**
+     * 执行预热，单个类型预热失败不会影响其他类型
+     *
+     * @return 每个类型的耗时报告
+     */
+    public WarmUpReport run() {
+        WarmUpReport report = new WarmUpReport();
+        long start = System.nanoTime();
+        if (parallel)
+            pool.submit(() -> tasks.values().parallelStream().forEach(task -> task.run(report))).join();
+        else
+            tasks.values().forEach(task -> task.run(report));
+        report.setTotalNanos(System.nanoTime() - start);
+        return report;
+    }
+
+    private void add(String name, Runnable action) {
+        tasks.putIfAbsent(name, new Task(name, action));
+    }
+
+    private static class Task {
+
+        private final String name;
+
+        private final Runnable action;
+
+        private Task(String name, Runnable action) {
+            this.name = name;
+            this.action = action;
+        }
+
+        private void run(WarmUpReport report) {
+            long start = System.nanoTime();
+            try {
+                action.run();
+                report.record(name, System.nanoTime() - start);
+            } catch (RuntimeException | LinkageError e) {
+                report.fail(name, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package top.felixu.common.warmup;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 预热报告，记录每个预热项的耗时及失败原因，用于调整需要预热的类型
+ *
+ * @author felixu
+ * @since 2019.12.19
+ */
+public class WarmUpReport {
+
+    private final Map<String, Long> costs = new ConcurrentHashMap<>();
+
+    private final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+
+    /**
+     * 预热总耗时(纳秒)，并行执行时小于各项耗时之和
+     */
+    @Getter
+    @Setter(AccessLevel.PACKAGE)
+    private long totalNanos;
+
+    void record(String name, long nanos) {
+        costs.put(name, nanos);
+    }
+
+    void fail(String name, Throwable cause) {
+        failures.put(name, cause);
+    }
+
+    /**
+     * 每个预热项的耗时(纳秒)，按耗时从高到低排序
+     *
+     * @return 预热项与耗时
+     */
+    public Map<String, Long> getCosts() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        costs.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEachOrdered(entry -> result.put(entry.getKey(), entry.getValue()));
+        return result;
+    }
+
+    /**
+     * 预热失败的项及原因
+     *
+     * @return 预热项与异常
+     */
+    public Map<String, Throwable> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("WarmUpReport(total=")
+                .append(TimeUnit.NANOSECONDS.toMillis(totalNanos)).append("ms, items=").append(costs.size())
+                .append(", failures=").append(failures.size()).append(")");
+        getCosts().forEach((name, nanos) -> builder.append("\n  ").append(name).append(": ")
+                .append(TimeUnit.NANOSECONDS.toMicros(nanos)).append("us"));
+        failures.forEach((name, cause) -> builder.append("\n  ").append(name).append(": failed, ").append(cause));
+        return builder.toString();
+    }
+}